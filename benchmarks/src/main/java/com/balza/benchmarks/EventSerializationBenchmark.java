@@ -0,0 +1,120 @@
+package com.balza.benchmarks;
+
+import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.events.TaskEventFormat;
+import com.balza.todoapp.events.TaskUpdatedEvent;
+import com.balza.todoapp.events.TaskUpdatedEventSerializer;
+import com.balza.todoapp.model.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация событий и DTO так, как она настроена в приложениях:
+ * ObjectMapper со стандартными настройками Spring Boot и пара
+ * JsonSerializer/JsonDeserializer из KafkaProducerConfig/KafkaConsumerConfig.
+ * Бенчмарки binary* сравнивают JSON с бинарным форматом task-events.format=binary;
+ * размер сообщения в обоих форматах печатается при старте.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+    private static final String TOPIC = "task.updated";
+
+    private ObjectMapper objectMapper;
+    private JsonSerializer<TaskUpdatedEvent> kafkaSerializer;
+    private JsonDeserializer<com.balza.statsservice.events.TaskUpdatedEvent> kafkaDeserializer;
+    private TaskUpdatedEventSerializer binarySerializer;
+    private com.balza.statsservice.events.TaskUpdatedEventDeserializer statsDeserializer;
+
+    private TaskUpdatedEvent event;
+    private TaskResponseDto taskDto;
+    private byte[] serializedEvent;
+    private byte[] binaryEvent;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        kafkaSerializer = new JsonSerializer<>();
+        kafkaSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        kafkaDeserializer = new JsonDeserializer<>(com.balza.statsservice.events.TaskUpdatedEvent.class, false);
+        kafkaDeserializer.addTrustedPackages("*");
+
+        event = TaskUpdatedEvent.builder()
+                .taskId(123_456L)
+                .totalTasks(1_000_000L)
+                .occurredAt(Instant.parse("2025-09-10T10:00:00.123456Z"))
+                .build();
+        taskDto = new TaskResponseDto(123_456L, "Benchmark task", "Description of the benchmark task",
+                OffsetDateTime.parse("2099-09-10T10:00:00Z"), Status.IN_PROGRESS);
+        serializedEvent = kafkaSerializer.serialize(TOPIC, event);
+
+        binarySerializer = new TaskUpdatedEventSerializer(TaskEventFormat.BINARY, kafkaSerializer);
+        statsDeserializer = new com.balza.statsservice.events.TaskUpdatedEventDeserializer(kafkaDeserializer);
+        binaryEvent = binarySerializer.serialize(TOPIC, event);
+
+        System.out.printf("TaskUpdatedEvent size: json=%d bytes, binary=%d bytes%n",
+                serializedEvent.length, binaryEvent.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        kafkaSerializer.close();
+        kafkaDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] jacksonWriteEvent() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] jacksonWriteTaskDto() throws Exception {
+        return objectMapper.writeValueAsBytes(taskDto);
+    }
+
+    @Benchmark
+    public byte[] kafkaSerializeEvent() {
+        return kafkaSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public com.balza.statsservice.events.TaskUpdatedEvent kafkaDeserializeEvent() {
+        return kafkaDeserializer.deserialize(TOPIC, serializedEvent);
+    }
+
+    @Benchmark
+    public com.balza.statsservice.events.TaskUpdatedEvent kafkaRoundTrip() {
+        return kafkaDeserializer.deserialize(TOPIC, kafkaSerializer.serialize(TOPIC, event));
+    }
+
+    @Benchmark
+    public byte[] binarySerializeEvent() {
+        return binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public com.balza.statsservice.events.TaskUpdatedEvent binaryDeserializeEvent() {
+        return statsDeserializer.deserialize(TOPIC, binaryEvent);
+    }
+
+    @Benchmark
+    public com.balza.statsservice.events.TaskUpdatedEvent binaryRoundTrip() {
+        return statsDeserializer.deserialize(TOPIC, binarySerializer.serialize(TOPIC, event));
+    }
+}
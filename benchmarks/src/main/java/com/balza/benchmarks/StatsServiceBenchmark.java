@@ -0,0 +1,132 @@
+package com.balza.benchmarks;
+
+import com.balza.statsservice.api.StatsView;
+import com.balza.statsservice.repository.ConsumerOffsetRepository;
+import com.balza.statsservice.repository.StatusCounterRepository;
+import com.balza.statsservice.repository.TaskUpdateBatchRepository;
+import com.balza.statsservice.repository.UpdateRollupRepository;
+import com.balza.statsservice.service.EventDeduplicator;
+import com.balza.statsservice.service.EventLatencyTracker;
+import com.balza.statsservice.service.StatsAggregate;
+import com.balza.statsservice.service.StatsCheckpointer;
+import com.balza.statsservice.service.StatsService;
+import com.balza.statsservice.service.StatsSnapshot;
+import com.balza.statsservice.service.TaskUpdateWriter;
+import com.balza.statsservice.service.UpdateRollups;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Чтение статистики во встроенной H2 с заранее заполненной stats.task_updates:
+ * getStats() из материализованного представления против прежнего пути
+ * с count(*) по таблице и отдельным запросом total_tasks.
+ * Старт сервиса: полное чтение task_updates против восстановления из снимка.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatsServiceBenchmark {
+
+    @Param({"10000", "200000"})
+    public int updatedTasks;
+
+    private JdbcTemplate jdbcTemplate;
+    private StatsService statsService;
+    private StatsService snapshotStatsService;
+    private Path snapshotPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:stats-" + updatedTasks + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS stats");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stats.task_updates(" +
+                "task_id BIGINT PRIMARY KEY, last_updated TIMESTAMP WITH TIME ZONE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stats.total_tasks(total BIGINT NOT NULL, total_version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stats.status_counters(" +
+                "status VARCHAR(32) PRIMARY KEY, task_count BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stats.consumer_offsets(topic VARCHAR(255) NOT NULL, " +
+                "partition_id INT NOT NULL, last_offset BIGINT NOT NULL, PRIMARY KEY (topic, partition_id))");
+        jdbcTemplate.execute("DELETE FROM stats.task_updates");
+        jdbcTemplate.execute("DELETE FROM stats.total_tasks");
+        jdbcTemplate.execute("DELETE FROM stats.consumer_offsets");
+        jdbcTemplate.update("INSERT INTO stats.task_updates(task_id, last_updated) " +
+                "SELECT X, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", updatedTasks);
+        jdbcTemplate.update("INSERT INTO stats.total_tasks(total) VALUES (?)", updatedTasks * 2L);
+        jdbcTemplate.update("INSERT INTO stats.consumer_offsets(topic, partition_id, last_offset) VALUES (?, ?, ?)",
+                "task.updated", 0, updatedTasks);
+
+        snapshotPath = Files.createTempFile("stats-", ".snapshot");
+        new StatsSnapshot(Instant.now(), Map.of(new TopicPartition("task.updated", 0), (long) updatedTasks),
+                Roaring64NavigableMap.bitmapOf(LongStream.rangeClosed(1, updatedTasks).toArray())).write(snapshotPath);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        statsService = statsService(transactionManager, "");
+        statsService.rebuildView();
+        snapshotStatsService = statsService(transactionManager, snapshotPath.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotPath);
+    }
+
+    @Benchmark
+    public StatsView getStats() {
+        return statsService.getStats();
+    }
+
+    @Benchmark
+    public StatsView getStatsFromDatabase() {
+        Long updated = jdbcTemplate.queryForObject("select count(*) from stats.task_updates", Long.class);
+        long total = statsService.getTotalTasks();
+        double percent = total == 0 ? 0.0 : (updated * 100.0) / total;
+        return new StatsView(total, updated, percent, Map.of());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StatsView rebuildView() {
+        statsService.rebuildView();
+        return statsService.getStats();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StatsView restoreViewFromSnapshot() {
+        snapshotStatsService.rebuildView();
+        return snapshotStatsService.getStats();
+    }
+
+    private StatsService statsService(DataSourceTransactionManager transactionManager, String snapshotPath) {
+        TaskUpdateBatchRepository batchRepository = new TaskUpdateBatchRepository(jdbcTemplate);
+        TaskUpdateWriter writer = new TaskUpdateWriter(batchRepository, new TransactionTemplate(transactionManager), 0, 0);
+        ConsumerOffsetRepository offsetRepository = new ConsumerOffsetRepository(jdbcTemplate);
+        StatsAggregate aggregate = new StatsAggregate();
+        return new StatsService(writer, jdbcTemplate, aggregate,
+                new UpdateRollups(new UpdateRollupRepository(jdbcTemplate)),
+                batchRepository, new StatusCounterRepository(jdbcTemplate),
+                new EventDeduplicator(offsetRepository, new SimpleMeterRegistry(), 100_000),
+                new EventLatencyTracker(new SimpleMeterRegistry(), 1_800_000, 5_000, 60_000),
+                offsetRepository,
+                new StatsCheckpointer(aggregate, snapshotPath, 21_600_000));
+    }
+}
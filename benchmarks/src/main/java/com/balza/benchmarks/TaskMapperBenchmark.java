@@ -0,0 +1,42 @@
+package com.balza.benchmarks;
+
+import com.balza.todoapp.dto.CreateTaskRequestDto;
+import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.entity.Task;
+import com.balza.todoapp.mapper.TaskMapper;
+import com.balza.todoapp.mapper.TaskMapperImpl;
+import com.balza.todoapp.model.Status;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMapperBenchmark {
+
+    private final TaskMapper mapper = new TaskMapperImpl();
+    private Task task;
+    private CreateTaskRequestDto createRequest;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime dueDate = OffsetDateTime.parse("2099-09-10T10:00:00Z");
+        task = new Task(42L, "Benchmark task", "Description of the benchmark task", dueDate, Status.IN_PROGRESS);
+        createRequest = new CreateTaskRequestDto("Benchmark task", "Description of the benchmark task", dueDate, Status.TODO);
+    }
+
+    @Benchmark
+    public TaskResponseDto toDto() {
+        return mapper.toDto(task);
+    }
+
+    @Benchmark
+    public Task toEntity() {
+        return mapper.toEntity(createRequest);
+    }
+}
@@ -0,0 +1,113 @@
+package com.balza.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Приложение, запущенное отдельным процессом {@code java -jar <app>-exec.jar}.
+ * <p>
+ * todo-app и stats-service нельзя поднять в одной JVM: у обоих application.yml
+ * и db/changelog лежат по одинаковым путям в classpath. Отдельный процесс к тому же
+ * дает приложению собственную кучу и GC, как в реальном развертывании.
+ */
+public class AppProcess implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AppProcess.class);
+
+    private final String name;
+    private final int port;
+    private final Path logFile;
+    private final Process process;
+
+    private AppProcess(String name, int port, Path logFile, Process process) {
+        this.name = name;
+        this.port = port;
+        this.logFile = logFile;
+        this.process = process;
+    }
+
+    /**
+     * Запускает {@code <appsDir>/<name>-exec.jar} на свободном порту; вывод пишется в {@code <logDir>/<name>.log}.
+     */
+    public static AppProcess start(String name, LoadTestConfig config, List<String> args) throws IOException {
+        Path jar = config.appsDir().resolve(name + "-exec.jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found: build with mvn -Pload-test install -DskipTests");
+        }
+        Files.createDirectories(config.logDir());
+        Path logFile = config.logDir().resolve(name + ".log");
+        int port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(config.appsJava());
+        command.addAll(LoadTestConfig.splitArgs(config.javaOpts()));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(args);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        log.info("Started {} (pid {}) on port {}, log: {}", name, process.pid(), port, logFile);
+        return new AppProcess(name, port, logFile, process);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    /**
+     * Ждет, пока /actuator/health не ответит 200. Если процесс завершился раньше, сразу падает.
+     */
+    public void awaitHealthy(HttpClient client, Duration timeout) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue() + ", see " + logFile);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    log.info("{} is up at {}", name, baseUrl());
+                    return;
+                }
+            } catch (IOException e) {
+                // порт еще не слушается
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy in " + timeout + ", see " + logFile);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            log.warn("{} did not stop in 30 s, killing", name);
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
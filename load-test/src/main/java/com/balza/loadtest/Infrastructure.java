@@ -0,0 +1,125 @@
+package com.balza.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Брокер Kafka и Postgres для прогона, оба в процессе раннера.
+ * <p>
+ * Kafka - одноузловой KRaft-брокер из spring-kafka-test, топик task.updated создается
+ * с тремя партициями, как в docker-compose. Postgres - embedded-сборка zonky; она не запускается
+ * от root, поэтому в таком окружении нужно указать внешнюю БД через {@code load.jdbc-url}.
+ * Внешняя БД должна быть отдельной для прогонов: в нее пишутся задачи, а сохраненные
+ * stats-service позиции топика сбрасываются, потому что брокер каждый раз новый.
+ */
+public class Infrastructure implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Infrastructure.class);
+
+    static final String TOPIC_UPDATED = "task.updated";
+    static final int PARTITIONS = 3;
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final EmbeddedPostgres postgres;
+    private final String jdbcUrl;
+    private final String jdbcUsername;
+    private final String jdbcPassword;
+
+    private Infrastructure(EmbeddedKafkaKraftBroker kafka, EmbeddedPostgres postgres,
+                           String jdbcUrl, String jdbcUsername, String jdbcPassword) {
+        this.kafka = kafka;
+        this.postgres = postgres;
+        this.jdbcUrl = jdbcUrl;
+        this.jdbcUsername = jdbcUsername;
+        this.jdbcPassword = jdbcPassword;
+    }
+
+    public static Infrastructure start(LoadTestConfig config) throws IOException {
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = config.jdbcUrl();
+        String username = config.jdbcUsername();
+        String password = config.jdbcPassword();
+        if (jdbcUrl == null) {
+            if ("root".equals(System.getProperty("user.name"))) {
+                throw new IllegalStateException(
+                        "Embedded Postgres cannot run as root, set load.jdbc-url to an external database");
+            }
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres?reWriteBatchedInserts=true";
+            username = "postgres";
+            password = "";
+            log.info("Embedded Postgres started on port {}", postgres.getPort());
+        } else {
+            log.info("Using external database {}", jdbcUrl);
+            resetConsumerOffsets(jdbcUrl, username, password);
+        }
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC_UPDATED);
+        try {
+            kafka.afterPropertiesSet();
+        } catch (RuntimeException e) {
+            if (postgres != null) {
+                postgres.close();
+            }
+            throw e;
+        }
+        log.info("Embedded Kafka started at {}", kafka.getBrokersAsString());
+        return new Infrastructure(kafka, postgres, jdbcUrl, username, password);
+    }
+
+    /**
+     * Позиции из прошлого прогона относятся к уже удаленному брокеру: с ними stats-service
+     * отбросил бы события нового брокера как уже примененные.
+     */
+    private static void resetConsumerOffsets(String jdbcUrl, String username, String password) {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+             ResultSet exists = connection.createStatement()
+                     .executeQuery("SELECT to_regclass('stats.consumer_offsets') IS NOT NULL")) {
+            if (exists.next() && exists.getBoolean(1)) {
+                try (PreparedStatement delete = connection.prepareStatement(
+                        "DELETE FROM stats.consumer_offsets WHERE topic = ?")) {
+                    delete.setString(1, TOPIC_UPDATED);
+                    log.info("Reset {} stored offsets of {}", delete.executeUpdate(), TOPIC_UPDATED);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to reset consumer offsets in " + jdbcUrl, e);
+        }
+    }
+
+    public String bootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    public String jdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public String jdbcUsername() {
+        return jdbcUsername;
+    }
+
+    public String jdbcPassword() {
+        return jdbcPassword;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            kafka.destroy();
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.balza.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Текстовый отчет прогона: пропускная способность и перцентили по операциям,
+ * время догоняния stats-service и задержки событий из /api/stats/latency.
+ */
+public class LoadReport {
+
+    private static final String ROW = "%-8s %10s %8s %10s %10s %10s %10s %10s%n";
+
+    private final Workload.Result result;
+    private final Duration drainTime;
+    private final JsonNode latency;
+
+    /**
+     * @param drainTime время от конца нагрузки до совпадения счетчиков stats-service с todo-app,
+     *                  {@code null} если за load.drain-timeout они так и не сошлись
+     * @param latency   ответ /api/stats/latency за окно прогона
+     */
+    public LoadReport(Workload.Result result, Duration drainTime, JsonNode latency) {
+        this.result = result;
+        this.drainTime = drainTime;
+        this.latency = latency;
+    }
+
+    public void print(PrintStream out) {
+        double seconds = result.measured().toMillis() / 1000.0;
+        out.println();
+        out.printf(Locale.ROOT, "Requests over %.0f s (latency in ms)%n", seconds);
+        out.printf(Locale.ROOT, ROW, "op", "count", "errors", "ops/s", "p50", "p99", "p99.9", "max");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : result.latencies().entrySet()) {
+            Histogram histogram = entry.getValue();
+            long errors = result.errors().get(entry.getKey());
+            if (histogram.getTotalCount() == 0 && errors == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errors;
+            printRow(out, entry.getKey().name().toLowerCase(Locale.ROOT), histogram, errors, seconds);
+        }
+        printRow(out, "total", total, totalErrors, seconds);
+
+        out.println();
+        if (drainTime != null) {
+            out.printf(Locale.ROOT, "Stats ingestion lag after load: %d ms%n", drainTime.toMillis());
+        } else {
+            out.println("Stats ingestion lag after load: stats-service did not catch up within load.drain-timeout");
+        }
+        if (latency != null) {
+            out.printf(Locale.ROOT, "Event latency (ms), freshness SLO %d ms breached: %s%n",
+                    latency.path("freshnessSloMs").asLong(), latency.path("freshnessSloBreached").asBoolean());
+            out.printf(Locale.ROOT, "%-22s %10s %10s %10s %10s %10s%n", "stage", "count", "p50", "p99", "p99.9", "max");
+            for (JsonNode stage : latency.path("stages")) {
+                out.printf(Locale.ROOT, "%-22s %10d %10d %10d %10d %10d%n",
+                        stage.path("stage").asText(), stage.path("count").asLong(), stage.path("p50Ms").asLong(),
+                        stage.path("p99Ms").asLong(), stage.path("p999Ms").asLong(), stage.path("maxMs").asLong());
+            }
+        }
+    }
+
+    /**
+     * Наибольший p99 среди операций, мс.
+     */
+    public double maxP99Ms() {
+        return result.latencies().values().stream()
+                .mapToDouble(histogram -> millis(histogram, 99.0))
+                .max()
+                .orElse(0);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf(Locale.ROOT, ROW, name, histogram.getTotalCount(), errors,
+                String.format(Locale.ROOT, "%.1f", histogram.getTotalCount() / seconds),
+                format(millis(histogram, 50.0)), format(millis(histogram, 99.0)),
+                format(millis(histogram, 99.9)), format(histogram.getMaxValue() / 1000.0));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+}
@@ -0,0 +1,122 @@
+package com.balza.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Параметры прогона, читаются из системных свойств {@code load.*}.
+ * <p>
+ * Пример: {@code mvn -Pload-test -pl load-test exec:java -Dload.threads=32 -Dload.rate=2000 -Dload.duration=2m
+ * -Dload.mix=create=5,update=15,status=10,read=60,list=10}
+ * <p>
+ * Сравнение виртуальных и платформенных потоков todo-app: два прогона с одинаковыми параметрами,
+ * второй с {@code -Dload.todo-args=--spring.profiles.active=virtual-threads} и
+ * {@code -Dload.apps-java=<JDK 21+>/bin/java}; на Java 17 профиль меняет только пул соединений.
+ *
+ * @param appsDir       каталог с exec-jar todo-app и stats-service
+ * @param jdbcUrl       внешняя БД; если не задана, поднимается embedded Postgres
+ * @param appsJava      java, которой запускаются приложения; по умолчанию та же, что у прогона
+ * @param todoArgs      дополнительные аргументы todo-app через пробел, например профили
+ * @param threads       число потоков нагрузки
+ * @param rate          целевая суммарная интенсивность, оп/с; 0 - без ограничения (closed loop)
+ * @param mix           веса операций
+ * @param seedTasks     сколько задач создать до начала прогона
+ * @param failOnP99Ms   порог p99 любой операции, при превышении прогон завершается ошибкой; 0 - без порога
+ */
+public record LoadTestConfig(Path appsDir,
+                             Path logDir,
+                             String jdbcUrl,
+                             String jdbcUsername,
+                             String jdbcPassword,
+                             String javaOpts,
+                             String appsJava,
+                             List<String> todoArgs,
+                             int threads,
+                             int rate,
+                             Duration warmup,
+                             Duration duration,
+                             Duration startupTimeout,
+                             Duration drainTimeout,
+                             Map<Operation, Integer> mix,
+                             int seedTasks,
+                             long failOnP99Ms) {
+
+    static final String DEFAULT_MIX = "create=10,update=20,status=10,read=50,list=10";
+
+    public static LoadTestConfig fromSystemProperties() {
+        String appsDir = System.getProperty("load.apps-dir");
+        if (appsDir == null) {
+            throw new IllegalArgumentException("load.apps-dir is not set: run via mvn -Pload-test exec:java");
+        }
+        Path apps = Path.of(appsDir);
+        return new LoadTestConfig(
+                apps,
+                Path.of(property("load.log-dir", apps.resolveSibling("logs").toString())),
+                System.getProperty("load.jdbc-url"),
+                property("load.jdbc-username", "postgres"),
+                property("load.jdbc-password", ""),
+                property("load.java-opts", "-Xmx512m"),
+                property("load.apps-java", Path.of(System.getProperty("java.home"), "bin", "java").toString()),
+                splitArgs(property("load.todo-args", "")),
+                Integer.parseInt(property("load.threads", "16")),
+                Integer.parseInt(property("load.rate", "0")),
+                parseDuration(property("load.warmup", "10s")),
+                parseDuration(property("load.duration", "60s")),
+                parseDuration(property("load.startup-timeout", "180s")),
+                parseDuration(property("load.drain-timeout", "120s")),
+                parseMix(property("load.mix", DEFAULT_MIX)),
+                Integer.parseInt(property("load.seed-tasks", "10000")),
+                Long.parseLong(property("load.fail-on-p99-ms", "0")));
+    }
+
+    /**
+     * Разбирает строку вида {@code create=10,read=90}; отсутствующие операции получают вес 0.
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Malformed load.mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in load.mix: " + part);
+            }
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("load.mix has no operations: " + value);
+        }
+        return mix;
+    }
+
+    /**
+     * Длительность в формате {@code 500ms}, {@code 30s}, {@code 5m}, {@code 1h}.
+     */
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        long amount = Long.parseLong(v.substring(0, v.length() - 1));
+        return switch (v.charAt(v.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration: " + value);
+        };
+    }
+
+    static List<String> splitArgs(String value) {
+        return value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+}
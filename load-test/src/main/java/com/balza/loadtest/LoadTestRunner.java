@@ -0,0 +1,118 @@
+package com.balza.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагрузочный прогон на одной машине без внешних сервисов: поднимает embedded Kafka и Postgres,
+ * запускает todo-app и stats-service из их exec-jar, создает начальные задачи, гоняет mix
+ * операций TaskApi и печатает отчет. Параметры описаны в {@link LoadTestConfig}.
+ * <p>
+ * Запуск: {@code mvn -Pload-test install -DskipTests && mvn -Pload-test -pl load-test exec:java -Dload.duration=2m}
+ */
+public class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final String[] STATUSES = TaskApiClient.STATUSES;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+
+        try (Infrastructure infrastructure = Infrastructure.start(config);
+             AppProcess stats = AppProcess.start("stats-service", config, List.of(
+                     "--spring.datasource.url=" + infrastructure.jdbcUrl(),
+                     "--spring.datasource.username=" + infrastructure.jdbcUsername(),
+                     "--spring.datasource.password=" + infrastructure.jdbcPassword(),
+                     "--spring.kafka.bootstrap-servers=" + infrastructure.bootstrapServers(),
+                     "--spring.jpa.show-sql=false",
+                     "--stats.latency.interval-ms=1000"));
+             AppProcess todo = AppProcess.start("todo-app", config, todoArgs(config, infrastructure, stats))) {
+            // оба приложения поднимаются параллельно, ждем каждое отдельно
+            CompletableFuture<Void> statsUp = CompletableFuture.runAsync(() -> awaitHealthy(stats, http, config));
+            awaitHealthy(todo, http, config);
+            statsUp.join();
+
+            TaskApiClient client = new TaskApiClient(http, todo.baseUrl(), stats.baseUrl());
+            long seedStartedAt = System.nanoTime();
+            List<Long> seeded = client.seed(config.seedTasks());
+            log.info("Seeded {} tasks in {} ms", seeded.size(), (System.nanoTime() - seedStartedAt) / 1_000_000);
+
+            Workload.Result result = new Workload(config, client, seeded).run();
+            long loadEndedAt = System.nanoTime();
+            Duration drainTime = awaitStatsDrained(client, config.drainTimeout(), loadEndedAt);
+            Duration window = config.warmup().plus(config.duration())
+                    .plusNanos(System.nanoTime() - loadEndedAt)
+                    .plusSeconds(1);
+
+            LoadReport report = new LoadReport(result, drainTime, client.latency(window));
+            report.print(System.out);
+
+            if (config.failOnP99Ms() > 0 && report.maxP99Ms() > config.failOnP99Ms()) {
+                throw new IllegalStateException(String.format("p99 %.2f ms is above load.fail-on-p99-ms=%d",
+                        report.maxP99Ms(), config.failOnP99Ms()));
+            }
+        }
+    }
+
+    /**
+     * Ждет, пока счетчики stats-service по статусам не совпадут с числом задач в todo-app,
+     * и возвращает время от конца нагрузки до этого момента.
+     */
+    private static Duration awaitStatsDrained(TaskApiClient client, Duration timeout, long loadEndedAt)
+            throws IOException, InterruptedException {
+        long[] expected = new long[STATUSES.length];
+        for (int i = 0; i < STATUSES.length; i++) {
+            expected[i] = client.countTasks(STATUSES[i]);
+        }
+        long deadline = loadEndedAt + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            JsonNode byStatus = client.stats().path("tasksByStatus");
+            boolean drained = true;
+            for (int i = 0; i < STATUSES.length && drained; i++) {
+                drained = byStatus.path(STATUSES[i]).asLong() == expected[i];
+            }
+            if (drained) {
+                return Duration.ofNanos(System.nanoTime() - loadEndedAt);
+            }
+            Thread.sleep(100);
+        }
+        log.warn("stats-service did not match todo-app counts {} within {}", expected, timeout);
+        return null;
+    }
+
+    private static List<String> todoArgs(LoadTestConfig config, Infrastructure infrastructure, AppProcess stats) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + infrastructure.jdbcUrl(),
+                "--spring.datasource.username=" + infrastructure.jdbcUsername(),
+                "--spring.datasource.password=" + infrastructure.jdbcPassword(),
+                "--spring.kafka.bootstrap-servers=" + infrastructure.bootstrapServers(),
+                "--spring.jpa.show-sql=false",
+                "--stats-client.url=" + stats.baseUrl()));
+        args.addAll(config.todoArgs());
+        return args;
+    }
+
+    private static void awaitHealthy(AppProcess app, HttpClient http, LoadTestConfig config) {
+        try {
+            app.awaitHealthy(http, config.startupTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + app.baseUrl(), e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.balza.loadtest;
+
+/**
+ * Операции нагрузки, каждая соответствует одному эндпоинту TaskApi.
+ */
+public enum Operation {
+    /** POST /api/v1/tasks */
+    CREATE,
+    /** PUT /api/v1/tasks */
+    UPDATE,
+    /** PATCH /api/v1/tasks/{id}/status */
+    STATUS,
+    /** GET /api/v1/tasks/{id} */
+    READ,
+    /** GET /api/v1/tasks?status=...&sortBy=dueDate */
+    LIST
+}
@@ -0,0 +1,159 @@
+package com.balza.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP-клиент к TaskApi todo-app и к /api/stats stats-service.
+ * Тела запросов собираются как Map, чтобы не тянуть в модуль DTO приложений.
+ */
+public class TaskApiClient {
+
+    static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int BULK_LIMIT = 1000;
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String tasksUrl;
+    private final String statsUrl;
+
+    public TaskApiClient(HttpClient http, String todoBaseUrl, String statsBaseUrl) {
+        this.http = http;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.tasksUrl = todoBaseUrl + "/api/v1/tasks";
+        this.statsUrl = statsBaseUrl + "/api/stats";
+    }
+
+    /**
+     * Создает задачи пачками по {@value #BULK_LIMIT} через /tasks/bulk и возвращает их id.
+     */
+    public List<Long> seed(int count) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(count);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int from = 0; from < count; from += BULK_LIMIT) {
+            List<Map<String, Object>> tasks = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + BULK_LIMIT); i++) {
+                tasks.add(task(random, null));
+            }
+            HttpResponse<byte[]> response = send(json("POST", tasksUrl + "/bulk", Map.of("tasks", tasks)));
+            requireSuccess(response, "seed");
+            for (JsonNode task : objectMapper.readTree(response.body())) {
+                ids.add(task.get("id").asLong());
+            }
+        }
+        return ids;
+    }
+
+    public HttpResponse<byte[]> create() throws IOException, InterruptedException {
+        return send(json("POST", tasksUrl, task(ThreadLocalRandom.current(), null)));
+    }
+
+    public HttpResponse<byte[]> update(long id) throws IOException, InterruptedException {
+        return send(json("PUT", tasksUrl, task(ThreadLocalRandom.current(), id)));
+    }
+
+    public HttpResponse<byte[]> changeStatus(long id) throws IOException, InterruptedException {
+        String status = STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+        return send(request(tasksUrl + "/" + id + "/status?status=" + status)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    public HttpResponse<byte[]> read(long id) throws IOException, InterruptedException {
+        return send(request(tasksUrl + "/" + id).GET().build());
+    }
+
+    public HttpResponse<byte[]> list() throws IOException, InterruptedException {
+        String status = STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+        return send(request(tasksUrl + "?status=" + status + "&sortBy=dueDate&size=20").GET().build());
+    }
+
+    /**
+     * id задачи из ответа на create.
+     */
+    public long idOf(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    /**
+     * Число задач в todo-app, всего ({@code status == null}) или в одном статусе.
+     */
+    public long countTasks(String status) throws IOException, InterruptedException {
+        String url = tasksUrl + "?size=1" + (status == null ? "" : "&status=" + status);
+        HttpResponse<byte[]> response = send(request(url).GET().build());
+        requireSuccess(response, "count tasks");
+        return objectMapper.readTree(response.body()).get("totalElements").asLong();
+    }
+
+    public JsonNode stats() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(request(statsUrl).GET().build());
+        requireSuccess(response, "stats");
+        return objectMapper.readTree(response.body());
+    }
+
+    public JsonNode latency(Duration window) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(request(statsUrl + "/latency?window=" + window.toSeconds() + "s").GET().build());
+        requireSuccess(response, "stats latency");
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest json(String method, String url, Object body) {
+        try {
+            return request(url)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static Map<String, Object> task(ThreadLocalRandom random, Long id) {
+        Map<String, Object> task = new LinkedHashMap<>();
+        if (id != null) {
+            task.put("id", id);
+        }
+        int n = random.nextInt(1_000_000);
+        task.put("title", "load task " + n);
+        task.put("description", "generated by load-test #" + n);
+        task.put("dueDate", OffsetDateTime.now(ZoneOffset.UTC).plusDays(1 + random.nextInt(365)));
+        task.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+        return task;
+    }
+
+    private static void requireSuccess(HttpResponse<byte[]> response, String what) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(what + " failed with HTTP " + response.statusCode()
+                    + ": " + new String(response.body()));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.balza.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки: {@code threads} потоков выбирают операцию по весам mix и вызывают TaskApi.
+ * <p>
+ * При заданном {@code rate} каждый поток работает по расписанию, и задержка считается
+ * от запланированного момента старта, а не от фактического: если сервис притормозил,
+ * ожидание в очереди попадает в перцентили (поправка на coordinated omission).
+ * Без rate нагрузка замкнутая, и задержка - это время ответа.
+ * Операции во время прогрева выполняются, но в статистику не попадают.
+ */
+public class Workload {
+
+    private static final Logger log = LoggerFactory.getLogger(Workload.class);
+
+    private final LoadTestConfig config;
+    private final TaskApiClient client;
+    private final TaskIds ids;
+    private final Operation[] schedule;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public Workload(LoadTestConfig config, TaskApiClient client, List<Long> seededIds) {
+        this.config = config;
+        this.client = client;
+        this.ids = new TaskIds(seededIds);
+        this.schedule = schedule(config.mix());
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public Result run() throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + config.warmup().toNanos();
+        long endAt = measureFrom + config.duration().toNanos();
+        long intervalNs = config.rate() > 0 ? TimeUnit.SECONDS.toNanos(config.threads()) / config.rate() : 0;
+        log.info("Running {} threads, rate {}, warmup {}, duration {}, mix {}",
+                config.threads(), config.rate() > 0 ? config.rate() + " ops/s" : "unlimited",
+                config.warmup(), config.duration(), config.mix());
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < config.threads(); i++) {
+            // потоки стартуют со сдвигом, чтобы запросы не шли залпами
+            long firstStart = startedAt + (intervalNs * i) / config.threads();
+            workers.add(executor.submit(() -> loop(firstStart, intervalNs, measureFrom, endAt)));
+        }
+        executor.shutdown();
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+        return new Result(histograms, errorCounts, config.duration());
+    }
+
+    private void loop(long firstStart, long intervalNs, long measureFrom, long endAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long intendedStart = firstStart;
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNs > 0) {
+                while (now < intendedStart) {
+                    LockSupport.parkNanos(intendedStart - now);
+                    now = System.nanoTime();
+                }
+            } else {
+                intendedStart = now;
+            }
+            if (intendedStart >= endAt || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            boolean ok = execute(operation, random);
+            long latencyNs = System.nanoTime() - intendedStart;
+            if (intendedStart >= measureFrom) {
+                if (ok) {
+                    recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNs));
+                } else {
+                    errors.get(operation).increment();
+                }
+            }
+            intendedStart += intervalNs;
+        }
+    }
+
+    private boolean execute(Operation operation, ThreadLocalRandom random) {
+        try {
+            HttpResponse<byte[]> response = switch (operation) {
+                case CREATE -> client.create();
+                case UPDATE -> client.update(ids.random(random));
+                case STATUS -> client.changeStatus(ids.random(random));
+                case READ -> client.read(ids.random(random));
+                case LIST -> client.list();
+            };
+            boolean ok = response.statusCode() / 100 == 2;
+            if (ok && operation == Operation.CREATE) {
+                ids.add(client.idOf(response));
+            } else if (!ok) {
+                log.debug("{} failed with HTTP {}", operation, response.statusCode());
+            }
+            return ok;
+        } catch (IOException e) {
+            log.debug("{} failed", operation, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Таблица выбора операции: каждая операция повторена столько раз, каков ее вес.
+     */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(Operation[]::new);
+    }
+
+    /**
+     * Итог прогона: задержки в микросекундах и число ошибок по каждой операции за время измерения.
+     */
+    public record Result(Map<Operation, Histogram> latencies, Map<Operation, Long> errors, Duration measured) {
+    }
+
+    /**
+     * id существующих задач; новые добавляются по мере выполнения CREATE.
+     */
+    private static final class TaskIds {
+
+        private long[] ids;
+        private int size;
+
+        TaskIds(List<Long> seeded) {
+            ids = new long[Math.max(16, seeded.size() * 2)];
+            for (Long id : seeded) {
+                ids[size++] = id;
+            }
+        }
+
+        synchronized void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        synchronized long random(ThreadLocalRandom random) {
+            if (size == 0) {
+                throw new IllegalStateException("No tasks to update or read, set load.seed-tasks > 0");
+            }
+            return ids[random.nextInt(size)];
+        }
+    }
+}
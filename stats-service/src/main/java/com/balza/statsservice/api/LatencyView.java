@@ -0,0 +1,21 @@
+package com.balza.statsservice.api;
+
+import com.balza.statsservice.model.LatencyStage;
+
+import java.time.Duration;
+import java.util.List;
+
+public record LatencyView(Duration window,
+                          long freshnessSloMs,
+                          boolean freshnessSloBreached,
+                          List<StageLatency> stages) {
+
+    public record StageLatency(LatencyStage stage,
+                               long count,
+                               long p50Ms,
+                               long p90Ms,
+                               long p99Ms,
+                               long p999Ms,
+                               long maxMs) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.balza.statsservice.api;
+
+import java.time.Instant;
+
+public record RollupView(Instant bucketStart,
+                         long updates,
+                         long distinctTasks,
+                         long lagP50Ms,
+                         long lagP99Ms) {
+}
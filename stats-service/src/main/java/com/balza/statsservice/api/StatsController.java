@@ -1,10 +1,26 @@
 package com.balza.statsservice.api;
 
+import com.balza.statsservice.model.RollupGranularity;
+import com.balza.statsservice.service.EventLatencyTracker;
+import com.balza.statsservice.service.StatsBroadcaster;
 import com.balza.statsservice.service.StatsService;
+import com.balza.statsservice.service.UpdateRollups;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DurationFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -12,9 +28,57 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatsController {
 
     private final StatsService statsService;
+    private final StatsBroadcaster statsBroadcaster;
+    private final UpdateRollups updateRollups;
+    private final EventLatencyTracker eventLatencyTracker;
 
     @GetMapping
     public StatsView getStats() {
         return statsService.getStats();
     }
+
+    /**
+     * Live stats as server-sent events: the current view on connect,
+     * then every change, coalesced by stats.stream.tick-ms.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStats() {
+        SseEmitter emitter = statsBroadcaster.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Update rollups of the given width between from and to (ISO-8601 instants).
+     * Defaults to the last 24 buckets.
+     */
+    @GetMapping("/rollups")
+    public List<RollupView> getRollups(
+            @RequestParam(name = "granularity", defaultValue = "MINUTE") RollupGranularity granularity,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minusSeconds(granularity.bucketSeconds() * 24);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+        return updateRollups.query(granularity, start, end);
+    }
+
+    /**
+     * Event latency percentiles per stage over the last window (e.g. 30s, 5m, 1h),
+     * plus the freshness SLO state.
+     */
+    @GetMapping("/latency")
+    public LatencyView getLatency(
+            @RequestParam(name = "window", defaultValue = "5m")
+            @DurationFormat(style = DurationFormat.Style.SIMPLE) Duration window) {
+        if (window.isNegative() || window.isZero() || window.toMillis() > eventLatencyTracker.retentionMs()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "'window' must be positive and at most " + Duration.ofMillis(eventLatencyTracker.retentionMs()));
+        }
+        return eventLatencyTracker.query(window);
+    }
 }
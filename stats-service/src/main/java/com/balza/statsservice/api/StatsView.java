@@ -1,4 +1,11 @@
 package com.balza.statsservice.api;
 
-public record StatsView(long totalTasks, long updatedTasks, double updatedPercent) {
+import com.balza.statsservice.model.TaskStatus;
+
+import java.util.Map;
+
+public record StatsView(long totalTasks,
+                        long updatedTasks,
+                        double updatedPercent,
+                        Map<TaskStatus, Long> tasksByStatus) {
 }
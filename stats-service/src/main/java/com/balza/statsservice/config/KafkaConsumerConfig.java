@@ -1,6 +1,9 @@
 package com.balza.statsservice.config;
 
 import com.balza.statsservice.events.TaskUpdatedEvent;
+import com.balza.statsservice.events.TaskUpdatedEventDeserializer;
+import com.balza.statsservice.service.EventDeduplicator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +12,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
@@ -20,26 +24,55 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrap;
 
+    @Value("${stats.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${stats.consumer.fetch-min-bytes:1}")
+    private int fetchMinBytes;
+
+    @Value("${stats.consumer.fetch-max-wait-ms:500}")
+    private int fetchMaxWaitMs;
+
+    /**
+     * Number of consumer threads; should match the partition count of task.updated,
+     * extra threads stay idle.
+     */
+    @Value("${stats.listener.concurrency:1}")
+    private int concurrency;
+
+    /**
+     * Consumer metrics include kafka.consumer.fetch.manager.records.lag
+     * per partition, which is the consumer lag of the listener.
+     */
     @Bean
-    public ConsumerFactory<String, TaskUpdatedEvent> taskUpdatedConsumerFactory() {
+    public ConsumerFactory<String, TaskUpdatedEvent> taskUpdatedConsumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "stats-service");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        JsonDeserializer<TaskUpdatedEvent> valueDeserializer =
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        JsonDeserializer<TaskUpdatedEvent> jsonDeserializer =
                 new JsonDeserializer<>(TaskUpdatedEvent.class, false);
-        valueDeserializer.addTrustedPackages("*");
-        return new DefaultKafkaConsumerFactory<>(
-                props, new StringDeserializer(), valueDeserializer
+        jsonDeserializer.addTrustedPackages("*");
+        DefaultKafkaConsumerFactory<String, TaskUpdatedEvent> factory = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new TaskUpdatedEventDeserializer(jsonDeserializer)
         );
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, TaskUpdatedEvent>
-    taskUpdatedKafkaListenerContainerFactory() {
+    taskUpdatedKafkaListenerContainerFactory(ConsumerFactory<String, TaskUpdatedEvent> taskUpdatedConsumerFactory,
+                                             EventDeduplicator eventDeduplicator) {
         ConcurrentKafkaListenerContainerFactory<String, TaskUpdatedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(taskUpdatedConsumerFactory());
+        factory.setConsumerFactory(taskUpdatedConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setConsumerRebalanceListener(eventDeduplicator);
         return factory;
     }
 }
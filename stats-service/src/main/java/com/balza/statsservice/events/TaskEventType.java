@@ -0,0 +1,8 @@
+package com.balza.statsservice.events;
+
+public enum TaskEventType {
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_STATUS_CHANGED,
+    TASK_DELETED
+}
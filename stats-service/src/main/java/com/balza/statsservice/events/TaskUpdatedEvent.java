@@ -1,5 +1,6 @@
 package com.balza.statsservice.events;
 
+import com.balza.statsservice.model.TaskStatus;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
@@ -8,7 +9,34 @@ import java.time.Instant;
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class TaskUpdatedEvent {
+    /**
+     * Outbox row id assigned by todo-app; missing in events produced before it was introduced.
+     */
+    private Long eventId;
+    /**
+     * Missing in events produced before status tracking; such events are updates.
+     */
+    private TaskEventType eventType;
     private Long taskId;
     private Instant occurredAt;
     private Long totalTasks;
+    /**
+     * Version of the todo-app counter row totalTasks was read from; a higher
+     * version is a newer total. Missing in events produced before it was introduced.
+     */
+    private Long totalTasksVersion;
+    private TaskStatus oldStatus;
+    private TaskStatus newStatus;
+
+    public TaskEventType resolvedEventType() {
+        return eventType != null ? eventType : TaskEventType.TASK_UPDATED;
+    }
+
+    /**
+     * Whether the event counts as an update of the task for the updated-tasks statistics.
+     */
+    public boolean isUpdate() {
+        TaskEventType type = resolvedEventType();
+        return type == TaskEventType.TASK_UPDATED || type == TaskEventType.TASK_STATUS_CHANGED;
+    }
 }
@@ -0,0 +1,78 @@
+package com.balza.statsservice.events;
+
+import com.balza.statsservice.model.TaskStatus;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * Reader for the compact binary TaskUpdatedEvent layout written by todo-app:
+ * <pre>
+ * v1: magic(1) | 1 | flags(1) | taskId(8)? | totalTasks(8)? | occurredAt: seconds(8) nanos(4)?
+ * v2: magic(1) | 2 | flags(1) | eventType(1) | taskId(8)? | totalTasks(8)? | occurredAt(12)?
+ *     | oldStatus(1)? | newStatus(1)? | eventId(8)? | totalTasksVersion(8)?
+ * </pre>
+ * A field is present only when its bit is set in flags. v1 records are updates without statuses.
+ * Type and status codes are indexes into EVENT_TYPES and STATUSES and must match todo-app.
+ */
+public final class TaskUpdatedEventBinaryCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte SCHEMA_VERSION = 2;
+    private static final byte SCHEMA_VERSION_V1 = 1;
+
+    private static final TaskEventType[] EVENT_TYPES = {
+            TaskEventType.TASK_CREATED,
+            TaskEventType.TASK_UPDATED,
+            TaskEventType.TASK_STATUS_CHANGED,
+            TaskEventType.TASK_DELETED
+    };
+    private static final TaskStatus[] STATUSES = {TaskStatus.TODO, TaskStatus.IN_PROGRESS, TaskStatus.DONE};
+
+    private static final int HEADER_SIZE = 3;
+    private static final byte HAS_TASK_ID = 1;
+    private static final byte HAS_TOTAL_TASKS = 1 << 1;
+    private static final byte HAS_OCCURRED_AT = 1 << 2;
+    private static final byte HAS_OLD_STATUS = 1 << 3;
+    private static final byte HAS_NEW_STATUS = 1 << 4;
+    private static final byte HAS_EVENT_ID = 1 << 5;
+    private static final byte HAS_TOTAL_TASKS_VERSION = 1 << 6;
+
+    private TaskUpdatedEventBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static TaskUpdatedEvent decode(byte[] data) {
+        if (!isBinary(data) || data.length < HEADER_SIZE) {
+            throw new SerializationException("Not a binary TaskUpdatedEvent");
+        }
+        byte version = data[1];
+        if (version != SCHEMA_VERSION && version != SCHEMA_VERSION_V1) {
+            throw new SerializationException("Unsupported TaskUpdatedEvent schema version: " + version);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        byte flags = data[2];
+        try {
+            TaskUpdatedEvent event = new TaskUpdatedEvent();
+            event.setEventType(version == SCHEMA_VERSION_V1
+                    ? TaskEventType.TASK_UPDATED
+                    : EVENT_TYPES[buffer.get()]);
+            event.setTaskId((flags & HAS_TASK_ID) != 0 ? buffer.getLong() : null);
+            event.setTotalTasks((flags & HAS_TOTAL_TASKS) != 0 ? buffer.getLong() : null);
+            event.setOccurredAt((flags & HAS_OCCURRED_AT) != 0
+                    ? Instant.ofEpochSecond(buffer.getLong(), buffer.getInt())
+                    : null);
+            event.setOldStatus((flags & HAS_OLD_STATUS) != 0 ? STATUSES[buffer.get()] : null);
+            event.setNewStatus((flags & HAS_NEW_STATUS) != 0 ? STATUSES[buffer.get()] : null);
+            event.setEventId((flags & HAS_EVENT_ID) != 0 ? buffer.getLong() : null);
+            event.setTotalTasksVersion((flags & HAS_TOTAL_TASKS_VERSION) != 0 ? buffer.getLong() : null);
+            return event;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Truncated binary TaskUpdatedEvent", e);
+        }
+    }
+}
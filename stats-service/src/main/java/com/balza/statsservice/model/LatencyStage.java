@@ -0,0 +1,27 @@
+package com.balza.statsservice.model;
+
+/**
+ * Segments of the path of a task event from the todo-app commit to the stats view.
+ * occurredAt is the producer side, relayedAt is the task-relayed-at header
+ * (the record timestamp when the header is missing).
+ */
+public enum LatencyStage {
+    /** occurredAt to relayedAt: time spent waiting in the todo-app outbox. */
+    OUTBOX("outbox"),
+    /** relayedAt to consumedAt: Kafka delivery plus consumer lag. */
+    BROKER("broker"),
+    /** occurredAt to consumedAt. */
+    PRODUCED_TO_CONSUMED("produced-to-consumed"),
+    /** occurredAt to the commit of the batch: how stale GET /api/stats can be. */
+    PRODUCED_TO_APPLIED("produced-to-applied");
+
+    private final String tag;
+
+    LatencyStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
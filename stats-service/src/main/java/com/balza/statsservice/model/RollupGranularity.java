@@ -0,0 +1,35 @@
+package com.balza.statsservice.model;
+
+import java.time.Duration;
+
+/**
+ * Bucket width of update rollups and how many buckets are kept in memory.
+ */
+public enum RollupGranularity {
+    MINUTE(Duration.ofMinutes(1), 24 * 60),
+    HOUR(Duration.ofHours(1), 7 * 24),
+    DAY(Duration.ofDays(1), 90);
+
+    private final long bucketSeconds;
+    private final int retainedBuckets;
+
+    RollupGranularity(Duration bucket, int retainedBuckets) {
+        this.bucketSeconds = bucket.getSeconds();
+        this.retainedBuckets = retainedBuckets;
+    }
+
+    public long bucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public int retainedBuckets() {
+        return retainedBuckets;
+    }
+
+    /**
+     * Index of the bucket that contains the given epoch second.
+     */
+    public long bucketOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, bucketSeconds);
+    }
+}
@@ -0,0 +1,10 @@
+package com.balza.statsservice.model;
+
+/**
+ * Task status as published by todo-app.
+ */
+public enum TaskStatus {
+    TODO,
+    IN_PROGRESS,
+    DONE
+}
@@ -0,0 +1,59 @@
+package com.balza.statsservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Last applied Kafka offset per partition, written in the same transaction
+ * as the statistics it covers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConsumerOffsetRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO stats.consumer_offsets(topic, partition_id, last_offset) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (topic, partition_id) DO UPDATE " +
+                    "SET last_offset = GREATEST(stats.consumer_offsets.last_offset, EXCLUDED.last_offset)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Long findLastOffset(String topic, int partition) {
+        List<Long> offsets = jdbcTemplate.queryForList(
+                "SELECT last_offset FROM stats.consumer_offsets WHERE topic = ? AND partition_id = ?",
+                Long.class, topic, partition
+        );
+        return offsets.isEmpty() ? null : offsets.get(0);
+    }
+
+    public Map<TopicPartition, Long> findAll() {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT topic, partition_id, last_offset FROM stats.consumer_offsets",
+                rs -> {
+                    offsets.put(new TopicPartition(rs.getString("topic"), rs.getInt("partition_id")),
+                            rs.getLong("last_offset"));
+                }
+        );
+        return offsets;
+    }
+
+    public void saveAll(String topic, Map<Integer, Long> lastOffsets) {
+        if (lastOffsets.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Integer, Long>> entries = new ArrayList<>(lastOffsets.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, topic);
+            ps.setInt(2, entry.getKey());
+            ps.setLong(3, entry.getValue());
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.balza.statsservice.repository;
+
+import com.balza.statsservice.model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-status task counts, maintained from event deltas so that
+ * the tasks table is never grouped by status at runtime.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatusCounterRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<TaskStatus, Long> findAll() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        jdbcTemplate.query(
+                "SELECT status, task_count FROM stats.status_counters",
+                rs -> {
+                    counts.put(TaskStatus.valueOf(rs.getString("status")), rs.getLong("task_count"));
+                }
+        );
+        return counts;
+    }
+
+    public void addAll(Map<TaskStatus, Long> deltas) {
+        List<Map.Entry<TaskStatus, Long>> changes = new ArrayList<>();
+        deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .forEach(changes::add);
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE stats.status_counters SET task_count = task_count + ? WHERE status = ?",
+                changes, changes.size(), (ps, change) -> {
+                    ps.setLong(1, change.getValue());
+                    ps.setString(2, change.getKey().name());
+                }
+        );
+    }
+}
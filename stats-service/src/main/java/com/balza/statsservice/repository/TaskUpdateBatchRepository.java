@@ -0,0 +1,45 @@
+package com.balza.statsservice.repository;
+
+import com.balza.statsservice.events.TaskUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+@Repository
+@RequiredArgsConstructor
+public class TaskUpdateBatchRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO stats.task_updates(task_id, last_updated) VALUES (?, ?) " +
+                    "ON CONFLICT (task_id) DO UPDATE SET last_updated = EXCLUDED.last_updated " +
+                    "WHERE stats.task_updates.last_updated < EXCLUDED.last_updated";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the latest update of every task in a single JDBC batch.
+     * An older event never overwrites a newer stored timestamp.
+     */
+    public void upsertAll(Collection<TaskUpdatedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getTaskId());
+            ps.setTimestamp(2, Timestamp.from(event.getOccurredAt()));
+        });
+    }
+
+    public void deleteAll(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(
+                "DELETE FROM stats.task_updates WHERE task_id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", taskIds.toArray()))
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package com.balza.statsservice.repository;
+
+import com.balza.statsservice.model.RollupGranularity;
+import com.balza.statsservice.service.HyperLogLog;
+import com.balza.statsservice.service.LagHistogram;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class UpdateRollupRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO stats.update_rollups(granularity, bucket_start, updates, distinct_tasks, " +
+                    "lag_p50_ms, lag_p99_ms, task_sketch, lag_histogram) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (granularity, bucket_start) DO UPDATE SET updates = EXCLUDED.updates, " +
+                    "distinct_tasks = EXCLUDED.distinct_tasks, lag_p50_ms = EXCLUDED.lag_p50_ms, " +
+                    "lag_p99_ms = EXCLUDED.lag_p99_ms, task_sketch = EXCLUDED.task_sketch, " +
+                    "lag_histogram = EXCLUDED.lag_histogram";
+
+    private static final String SELECT_SQL =
+            "SELECT granularity, bucket_start, updates, task_sketch, lag_histogram FROM stats.update_rollups " +
+                    "WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores the full state of each bucket. The in-memory ring is authoritative
+     * for the buckets it holds, so a row is overwritten, not added to.
+     */
+    public void upsertAll(List<RollupRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.granularity().name());
+            ps.setTimestamp(2, Timestamp.from(row.bucketStart()));
+            ps.setLong(3, row.updates());
+            ps.setLong(4, row.distinctTasks());
+            ps.setLong(5, row.lagP50Ms());
+            ps.setLong(6, row.lagP99Ms());
+            ps.setBytes(7, row.sketch());
+            ps.setArray(8, ps.getConnection().createArrayOf("bigint",
+                    Arrays.stream(row.lagHistogram()).boxed().toArray()));
+        });
+    }
+
+    public List<RollupRow> findRange(RollupGranularity granularity, Instant fromInclusive, Instant toExclusive) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> toRow(rs),
+                granularity.name(), Timestamp.from(fromInclusive), Timestamp.from(toExclusive));
+    }
+
+    private static RollupRow toRow(ResultSet rs) throws SQLException {
+        Array histogramArray = rs.getArray("lag_histogram");
+        Object[] histogramValues = (Object[]) histogramArray.getArray();
+        long[] histogram = new long[histogramValues.length];
+        for (int i = 0; i < histogramValues.length; i++) {
+            histogram[i] = ((Number) histogramValues[i]).longValue();
+        }
+        return new RollupRow(
+                RollupGranularity.valueOf(rs.getString("granularity")),
+                rs.getTimestamp("bucket_start").toInstant(),
+                rs.getLong("updates"),
+                rs.getBytes("task_sketch"),
+                histogram
+        );
+    }
+
+    /**
+     * State of one rollup bucket: update count, HyperLogLog registers
+     * of the updated task ids and the log2 lag histogram.
+     */
+    public record RollupRow(RollupGranularity granularity,
+                            Instant bucketStart,
+                            long updates,
+                            byte[] sketch,
+                            long[] lagHistogram) {
+
+        public long distinctTasks() {
+            return HyperLogLog.estimate(sketch);
+        }
+
+        public long lagP50Ms() {
+            return LagHistogram.percentile(lagHistogram, 0.50);
+        }
+
+        public long lagP99Ms() {
+            return LagHistogram.percentile(lagHistogram, 0.99);
+        }
+    }
+}
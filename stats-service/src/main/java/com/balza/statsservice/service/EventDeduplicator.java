@@ -0,0 +1,155 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.events.TaskUpdatedEvent;
+import com.balza.statsservice.repository.ConsumerOffsetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops redelivered and duplicate events before any database write.
+ * <p>
+ * Records at or below the per-partition offset watermark were already applied:
+ * they come back after a crash or a rebalance, before the container committed
+ * its offsets. The watermark is stored in stats.consumer_offsets in the same
+ * transaction as the statistics, so it is never ahead of or behind the data.
+ * <p>
+ * A bounded set of recent event ids catches the other source of duplicates:
+ * todo-app resending an outbox row whose first send did reach the broker.
+ * Such a copy has a new offset but the same eventId.
+ */
+@Component
+@Slf4j
+public class EventDeduplicator implements ConsumerRebalanceListener {
+
+    private final ConsumerOffsetRepository offsetRepository;
+    private final Map<TopicPartition, Long> watermarks = new ConcurrentHashMap<>();
+    private final Set<Long> recentEventIds;
+    private final Counter redeliveredCounter;
+    private final Counter duplicateCounter;
+
+    public EventDeduplicator(ConsumerOffsetRepository offsetRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${stats.dedup.recent-event-ids:100000}") int recentEventIdsCapacity) {
+        this.offsetRepository = offsetRepository;
+        this.redeliveredCounter = skipped(meterRegistry, "redelivered");
+        this.duplicateCounter = skipped(meterRegistry, "duplicate");
+        this.recentEventIds = Collections.synchronizedSet(Collections.newSetFromMap(
+                new LinkedHashMap<>(16, 0.75f, false) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                        return size() > recentEventIdsCapacity;
+                    }
+                }));
+    }
+
+    public List<ConsumerRecord<String, TaskUpdatedEvent>> filter(
+            List<ConsumerRecord<String, TaskUpdatedEvent>> records) {
+        List<ConsumerRecord<String, TaskUpdatedEvent>> accepted = new ArrayList<>(records.size());
+        Set<Long> batchEventIds = new HashSet<>();
+        int redelivered = 0;
+        int duplicates = 0;
+        for (ConsumerRecord<String, TaskUpdatedEvent> record : records) {
+            if (record.offset() <= watermark(new TopicPartition(record.topic(), record.partition()))) {
+                redelivered++;
+                continue;
+            }
+            Long eventId = record.value() != null ? record.value().getEventId() : null;
+            if (eventId != null && (!batchEventIds.add(eventId) || recentEventIds.contains(eventId))) {
+                duplicates++;
+                continue;
+            }
+            accepted.add(record);
+        }
+        redeliveredCounter.increment(redelivered);
+        duplicateCounter.increment(duplicates);
+        if (redelivered > 0 || duplicates > 0) {
+            log.info("Skipped {} already applied and {} duplicate events out of {}",
+                    redelivered, duplicates, records.size());
+        }
+        return accepted;
+    }
+
+    /**
+     * Saves the watermark of every partition in the batch within the current
+     * transaction. The in-memory state moves forward only after the commit,
+     * so a rolled back batch is not mistaken for a duplicate on redelivery.
+     */
+    public void commit(List<ConsumerRecord<String, TaskUpdatedEvent>> records) {
+        Map<TopicPartition, Long> lastOffsets = new HashMap<>();
+        List<Long> eventIds = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, TaskUpdatedEvent> record : records) {
+            lastOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::max);
+            if (record.value() != null && record.value().getEventId() != null) {
+                eventIds.add(record.value().getEventId());
+            }
+        }
+
+        Map<String, Map<Integer, Long>> byTopic = new HashMap<>();
+        lastOffsets.forEach((partition, offset) ->
+                byTopic.computeIfAbsent(partition.topic(), topic -> new HashMap<>())
+                        .put(partition.partition(), offset));
+        byTopic.forEach(offsetRepository::saveAll);
+
+        Runnable advance = () -> {
+            lastOffsets.forEach((partition, offset) -> watermarks.merge(partition, offset, Math::max));
+            recentEventIds.addAll(eventIds);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance.run();
+                }
+            });
+        } else {
+            advance.run();
+        }
+    }
+
+    /**
+     * Another instance may have moved the watermark while it owned the partition,
+     * so it is reloaded lazily after every rebalance.
+     */
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        watermarks.keySet().removeAll(partitions);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        watermarks.keySet().removeAll(partitions);
+    }
+
+    private static Counter skipped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("stats.consumer.skipped")
+                .description("Consumed events dropped before processing")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private long watermark(TopicPartition partition) {
+        return watermarks.computeIfAbsent(partition, key -> {
+            Long offset = offsetRepository.findLastOffset(key.topic(), key.partition());
+            return offset != null ? offset : -1L;
+        });
+    }
+}
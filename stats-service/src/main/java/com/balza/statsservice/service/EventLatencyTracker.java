@@ -0,0 +1,199 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.api.LatencyView;
+import com.balza.statsservice.events.TaskUpdatedEvent;
+import com.balza.statsservice.model.LatencyStage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end latency of task events, split by {@link LatencyStage}.
+ * <p>
+ * Listener threads record into lock-free HdrHistogram recorders. Every
+ * stats.latency.interval-ms the recorders are swapped into interval histograms
+ * that are kept for stats.latency.retention-ms, so any recent window can be
+ * queried with exact percentiles (2 significant digits). The same values go to
+ * the stats.event.latency timer for Prometheus.
+ * <p>
+ * The stats.freshness gauge is the p99 of produced-to-applied over
+ * stats.latency.freshness-window-ms, and stats.freshness.slo.breached turns 1
+ * while it is above stats.latency.freshness-slo-ms. Stages compare clocks of
+ * different hosts, so clock skew shows up in the numbers; negative values are
+ * recorded as 0.
+ */
+@Component
+public class EventLatencyTracker {
+
+    public static final String RELAYED_AT_HEADER = "task-relayed-at";
+
+    private static final long HIGHEST_TRACKABLE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<LatencyStage, Recorder> recorders = new EnumMap<>(LatencyStage.class);
+    private final Map<LatencyStage, Timer> timers = new EnumMap<>(LatencyStage.class);
+    private final Map<LatencyStage, Deque<IntCountsHistogram>> intervals = new EnumMap<>(LatencyStage.class);
+    private final long retentionMs;
+    private final long freshnessSloMs;
+    private final long freshnessWindowMs;
+    private final AtomicLong freshnessMs = new AtomicLong();
+
+    public EventLatencyTracker(MeterRegistry meterRegistry,
+                               @Value("${stats.latency.retention-ms:1800000}") long retentionMs,
+                               @Value("${stats.latency.freshness-slo-ms:5000}") long freshnessSloMs,
+                               @Value("${stats.latency.freshness-window-ms:60000}") long freshnessWindowMs) {
+        this.retentionMs = retentionMs;
+        this.freshnessSloMs = freshnessSloMs;
+        this.freshnessWindowMs = freshnessWindowMs;
+        for (LatencyStage stage : LatencyStage.values()) {
+            recorders.put(stage, new Recorder(HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS));
+            intervals.put(stage, new ArrayDeque<>());
+            timers.put(stage, Timer.builder("stats.event.latency")
+                    .description("Latency of task events from todo-app to stats-service")
+                    .tag("stage", stage.tag())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("stats.freshness", freshnessMs, value -> value.get() / 1000.0)
+                .description("p99 produced-to-applied latency over the freshness window")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("stats.freshness.slo.breached", this, tracker -> tracker.isSloBreached() ? 1 : 0)
+                .description("1 while the freshness is above the SLO")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the consume-side stages of a batch. produced-to-applied is
+     * recorded once the surrounding transaction has committed.
+     */
+    public void record(List<ConsumerRecord<String, TaskUpdatedEvent>> records, Instant consumedAt) {
+        long consumedMs = consumedAt.toEpochMilli();
+        List<Long> occurred = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, TaskUpdatedEvent> record : records) {
+            TaskUpdatedEvent event = record.value();
+            if (event == null || event.getOccurredAt() == null) {
+                continue;
+            }
+            long occurredMs = event.getOccurredAt().toEpochMilli();
+            long relayedMs = relayedAt(record, consumedMs);
+            recordValue(LatencyStage.OUTBOX, relayedMs - occurredMs);
+            recordValue(LatencyStage.BROKER, consumedMs - relayedMs);
+            recordValue(LatencyStage.PRODUCED_TO_CONSUMED, consumedMs - occurredMs);
+            occurred.add(occurredMs);
+        }
+        if (occurred.isEmpty()) {
+            return;
+        }
+
+        Runnable applied = () -> {
+            long appliedMs = System.currentTimeMillis();
+            for (long occurredMs : occurred) {
+                recordValue(LatencyStage.PRODUCED_TO_APPLIED, appliedMs - occurredMs);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applied.run();
+                }
+            });
+        } else {
+            applied.run();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${stats.latency.interval-ms:15000}")
+    public synchronized void rotate() {
+        long now = System.currentTimeMillis();
+        for (LatencyStage stage : LatencyStage.values()) {
+            Histogram interval = recorders.get(stage).getIntervalHistogram();
+            IntCountsHistogram stored = new IntCountsHistogram(HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS);
+            stored.add(interval);
+            stored.setEndTimeStamp(now);
+            Deque<IntCountsHistogram> history = intervals.get(stage);
+            history.addLast(stored);
+            while (!history.isEmpty() && history.peekFirst().getEndTimeStamp() <= now - retentionMs) {
+                history.removeFirst();
+            }
+        }
+        Histogram recent = merge(LatencyStage.PRODUCED_TO_APPLIED, now - freshnessWindowMs);
+        freshnessMs.set(recent.getTotalCount() == 0 ? 0 : recent.getValueAtPercentile(99));
+    }
+
+    /**
+     * Percentiles of every stage over the intervals that ended within the window.
+     * The interval in progress is not included.
+     */
+    public synchronized LatencyView query(Duration window) {
+        long since = System.currentTimeMillis() - window.toMillis();
+        List<LatencyView.StageLatency> stages = new ArrayList<>();
+        for (LatencyStage stage : LatencyStage.values()) {
+            Histogram histogram = merge(stage, since);
+            stages.add(new LatencyView.StageLatency(
+                    stage,
+                    histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue()
+            ));
+        }
+        return new LatencyView(window, freshnessSloMs, isSloBreached(), stages);
+    }
+
+    public long retentionMs() {
+        return retentionMs;
+    }
+
+    public boolean isSloBreached() {
+        return freshnessMs.get() > freshnessSloMs;
+    }
+
+    private Histogram merge(LatencyStage stage, long since) {
+        Histogram merged = new Histogram(HIGHEST_TRACKABLE_MS, SIGNIFICANT_DIGITS);
+        for (IntCountsHistogram interval : intervals.get(stage)) {
+            if (interval.getEndTimeStamp() > since) {
+                merged.add(interval);
+            }
+        }
+        return merged;
+    }
+
+    private void recordValue(LatencyStage stage, long latencyMs) {
+        long value = Math.max(0, Math.min(latencyMs, HIGHEST_TRACKABLE_MS));
+        recorders.get(stage).recordValue(value);
+        timers.get(stage).record(value, TimeUnit.MILLISECONDS);
+    }
+
+    private static long relayedAt(ConsumerRecord<String, TaskUpdatedEvent> record, long fallbackMs) {
+        Header header = record.headers().lastHeader(RELAYED_AT_HEADER);
+        if (header != null && header.value() != null && header.value().length == Long.BYTES) {
+            return ByteBuffer.wrap(header.value()).getLong();
+        }
+        return record.timestamp() > 0 ? record.timestamp() : fallbackMs;
+    }
+}
@@ -0,0 +1,41 @@
+package com.balza.statsservice.service;
+
+/**
+ * Log2-bucketed histogram of consumer lag in milliseconds.
+ * Bucket 0 holds lag of 0 ms, bucket i holds [2^(i-1), 2^i) ms,
+ * so percentiles are reported as the upper bound of their bucket.
+ */
+public final class LagHistogram {
+    public static final int BUCKETS = 40;
+
+    private LagHistogram() {
+    }
+
+    public static long[] newHistogram() {
+        return new long[BUCKETS];
+    }
+
+    public static void record(long[] histogram, long lagMs) {
+        int bucket = lagMs <= 0 ? 0 : Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(lagMs));
+        histogram[bucket]++;
+    }
+
+    public static long percentile(long[] histogram, double percentile) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : 1L << i;
+            }
+        }
+        return 1L << (histogram.length - 1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.api.StatsView;
+import com.balza.statsservice.model.TaskStatus;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory materialized stats. Writers are the Kafka listener threads,
+ * readers only dereference an immutable {@link StatsView}.
+ * <p>
+ * Updated task ids are kept in a Roaring bitmap: dense runs of sequential ids
+ * take a few bits each instead of a boxed entry in a hash set, and the
+ * cardinality is cached, so reading it does not walk the set. The bitmap
+ * is not thread-safe and is only touched under the aggregate's lock.
+ */
+@Component
+public class StatsAggregate {
+
+    private Roaring64NavigableMap updatedTaskIds = new Roaring64NavigableMap();
+    private final AtomicLong totalTasks = new AtomicLong();
+    private final Map<TaskStatus, LongAdder> statusCounts = new EnumMap<>(TaskStatus.class);
+    private volatile StatsView view;
+
+    public StatsAggregate() {
+        for (TaskStatus status : TaskStatus.values()) {
+            statusCounts.put(status, new LongAdder());
+        }
+        view = toView();
+    }
+
+    /**
+     * Replaces the state; the aggregate takes ownership of {@code taskIds}.
+     */
+    public synchronized void reset(Roaring64NavigableMap taskIds, long total, Map<TaskStatus, Long> counts) {
+        updatedTaskIds = taskIds;
+        totalTasks.set(total);
+        statusCounts.forEach((status, adder) -> {
+            adder.reset();
+            adder.add(counts.getOrDefault(status, 0L));
+        });
+        publish();
+    }
+
+    /**
+     * Applies one consumed batch: newly updated tasks, deleted tasks,
+     * per-status deltas and the latest known total.
+     * The batch ids are merged as bitmaps, not one id at a time.
+     */
+    public void apply(Collection<Long> updatedIds,
+                      Collection<Long> deletedIds,
+                      Map<TaskStatus, Long> statusDeltas,
+                      Long total) {
+        Roaring64NavigableMap updated = bitmapOf(updatedIds);
+        Roaring64NavigableMap deleted = bitmapOf(deletedIds);
+        synchronized (this) {
+            updatedTaskIds.or(updated);
+            updatedTaskIds.andNot(deleted);
+        }
+        statusDeltas.forEach((status, delta) -> statusCounts.get(status).add(delta));
+        if (total != null) {
+            totalTasks.set(total);
+        }
+        publish();
+    }
+
+    /**
+     * Copy of the updated-task id set for checkpointing.
+     */
+    public synchronized Roaring64NavigableMap updatedTaskIds() {
+        return updatedTaskIds.clone();
+    }
+
+    public StatsView view() {
+        return view;
+    }
+
+    /**
+     * Synchronized so that the last publisher always sees every increment
+     * made before it when several listener threads apply batches.
+     */
+    private synchronized void publish() {
+        view = toView();
+    }
+
+    private static Roaring64NavigableMap bitmapOf(Collection<Long> ids) {
+        Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+        for (Long id : ids) {
+            bitmap.addLong(id);
+        }
+        return bitmap;
+    }
+
+    private StatsView toView() {
+        long total = totalTasks.get();
+        long updated = updatedTaskIds.getLongCardinality();
+        double percent = total == 0 ? 0.0 : (updated * 100.0) / total;
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        statusCounts.forEach((status, adder) -> byStatus.put(status, adder.sum()));
+        return new StatsView(total, updated, percent, Collections.unmodifiableMap(byStatus));
+    }
+}
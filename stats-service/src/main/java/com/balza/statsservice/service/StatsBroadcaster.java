@@ -0,0 +1,252 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.api.StatsView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes {@link StatsView} changes to SSE subscribers.
+ * <p>
+ * A scheduled tick compares the current view with the last one sent, so
+ * updates are coalesced to at most one per tick for every subscriber.
+ * A changed view is serialized and framed as an SSE event once, and the same
+ * chunks are written to all emitters. No database access happens on this path.
+ * <p>
+ * The tick runs on the shared scheduler, so it never writes to a socket itself:
+ * each subscriber holds at most one pending event, and a small dedicated pool
+ * writes it. A newer view replaces one the client has not received yet, so a
+ * slow client skips intermediate views instead of queueing them, and the pool
+ * queue never holds more than one task per subscriber. A client whose write has
+ * been blocked for longer than {@code stats.stream.send-timeout-ms} is dropped;
+ * its thread stays blocked until the container fails the write, so a burst of
+ * stuck clients can still occupy the whole pool and delay the others' updates,
+ * but never the checkpoint, rollup flush or latency rotation.
+ */
+@Component
+@Slf4j
+public class StatsBroadcaster {
+    private static final String STATS_EVENT = "stats";
+
+    private final StatsAggregate aggregate;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribers;
+    private final long heartbeatMs;
+    private final long sendTimeoutMs;
+    private final ExecutorService sendExecutor;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile StatsView lastSent;
+    private volatile String lastPayload;
+    private long lastSentAt = System.nanoTime();
+
+    public StatsBroadcaster(StatsAggregate aggregate,
+                            ObjectMapper objectMapper,
+                            @Value("${stats.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                            @Value("${stats.stream.max-subscribers:10000}") int maxSubscribers,
+                            @Value("${stats.stream.heartbeat-ms:15000}") long heartbeatMs,
+                            @Value("${stats.stream.send-timeout-ms:10000}") long sendTimeoutMs,
+                            @Value("${stats.stream.send-threads:4}") int sendThreads) {
+        this.aggregate = aggregate;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMs = heartbeatMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.sendExecutor = Executors.newFixedThreadPool(sendThreads, senderThreadFactory());
+    }
+
+    /**
+     * Registers a subscriber and sends it the current view right away.
+     *
+     * @return the emitter, or {@code null} when the subscriber limit is reached
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        String payload = lastPayload;
+        if (payload == null) {
+            payload = toJson(aggregate.view());
+        }
+        subscriber.offer(statsEvent(payload));
+        return emitter;
+    }
+
+    @Scheduled(fixedRateString = "${stats.stream.tick-ms:200}")
+    public void tick() {
+        dropLaggards();
+        StatsView view = aggregate.view();
+        if (view.equals(lastSent)) {
+            if (System.nanoTime() - lastSentAt >= heartbeatMs * 1_000_000) {
+                lastSentAt = System.nanoTime();
+                Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("keep-alive").build();
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offerHeartbeat(heartbeat);
+                }
+            }
+            return;
+        }
+        String payload = toJson(view);
+        lastSent = view;
+        lastPayload = payload;
+        broadcast(statsEvent(payload));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdown();
+    }
+
+    /**
+     * An event builder appends to its own data on every build(), so the event
+     * is built once by the caller instead of passing the builder to each emitter.
+     */
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        lastSentAt = System.nanoTime();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+        log.debug("Broadcast stats event to {} subscribers", subscribers.size());
+    }
+
+    /**
+     * Completing the emitter here would wait for the blocked write, so a laggard
+     * is only unregistered; its sender completes it once the write returns.
+     */
+    private void dropLaggards() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutMs * 1_000_000) {
+                subscriber.dropped = true;
+                subscribers.remove(subscriber);
+                log.info("Dropped an SSE subscriber whose write was blocked for over {} ms", sendTimeoutMs);
+            }
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> statsEvent(String payload) {
+        return SseEmitter.event().name(STATS_EVENT).data(payload, MediaType.APPLICATION_JSON).build();
+    }
+
+    private String toJson(StatsView view) {
+        try {
+            return objectMapper.writeValueAsString(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize stats view", e);
+        }
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "stats-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One client: the latest event it has not received yet and whether a sender
+     * is already scheduled to write it.
+     */
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final AtomicReference<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long sendingSince;
+        private volatile boolean dropped;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            pending.set(event);
+            schedule();
+        }
+
+        /**
+         * A keep-alive never replaces a view the client has not received yet.
+         */
+        void offerHeartbeat(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (pending.compareAndSet(null, event)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sendExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while (!dropped && (event = pending.getAndSet(null)) != null) {
+                sendingSince = System.nanoTime();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // the client went away; drop it without failing the other subscribers
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+            if (dropped) {
+                emitter.completeWithError(new IOException("SSE subscriber is too slow"));
+                return;
+            }
+            scheduled.set(false);
+            // an event offered after the last poll saw the sender still scheduled
+            if (pending.get() != null) {
+                schedule();
+            }
+        }
+    }
+}
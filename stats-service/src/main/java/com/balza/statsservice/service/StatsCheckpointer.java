@@ -0,0 +1,227 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.events.TaskUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically checkpoints the updated-task id set to a local {@link StatsSnapshot}
+ * so that a restarted instance does not scan stats.task_updates.
+ * <p>
+ * The database stays the source of truth. A snapshot is used only if it is younger
+ * than stats.snapshot.max-age-ms and its offsets cover exactly the partitions in
+ * stats.consumer_offsets without being ahead of them; otherwise the view is rebuilt
+ * from the database as before. After a restore the consumer is moved back to the
+ * snapshot offsets, and events up to the stored watermark, which the database
+ * already has, are replayed into the id set only.
+ * <p>
+ * Applied offsets and the replay state move forward only after the listener
+ * transaction commits, after the view itself, so a rolled back batch never
+ * lands in a snapshot. The offsets of a snapshot are taken before the id set
+ * is copied, so the set always reflects at least every event up to them.
+ * Replaying an event twice is harmless: membership depends only on the latest
+ * event of a task.
+ */
+@Component
+@Slf4j
+public class StatsCheckpointer {
+
+    private final StatsAggregate aggregate;
+    private final Path path;
+    private final long maxAgeMs;
+
+    private final Map<TopicPartition, Long> appliedOffsets = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Long> pendingSeeks = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Long> replayUntil = new ConcurrentHashMap<>();
+    private volatile Map<TopicPartition, Long> lastWrittenOffsets = Map.of();
+
+    public StatsCheckpointer(StatsAggregate aggregate,
+                             @Value("${stats.snapshot.path:}") String path,
+                             @Value("${stats.snapshot.max-age-ms:21600000}") long maxAgeMs) {
+        this.aggregate = aggregate;
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /**
+     * Loads the snapshot if it is usable against the stored offsets.
+     *
+     * @return the snapshot, or {@code null} if the view has to be rebuilt from the database
+     */
+    public StatsSnapshot restore(Map<TopicPartition, Long> storedOffsets) {
+        if (path == null) {
+            return null;
+        }
+        StatsSnapshot snapshot;
+        try {
+            snapshot = StatsSnapshot.read(path);
+        } catch (NoSuchFileException e) {
+            log.info("No stats snapshot at {}", path);
+            return null;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable stats snapshot", e);
+            return null;
+        }
+
+        Duration age = Duration.between(snapshot.createdAt(), Instant.now());
+        if (age.toMillis() > maxAgeMs) {
+            log.info("Ignoring stats snapshot {} old", age);
+            return null;
+        }
+        if (snapshot.offsets().isEmpty() || !snapshot.offsets().keySet().equals(storedOffsets.keySet())) {
+            log.info("Ignoring stats snapshot for partitions {}, database has {}",
+                    snapshot.offsets().keySet(), storedOffsets.keySet());
+            return null;
+        }
+        for (Map.Entry<TopicPartition, Long> offset : snapshot.offsets().entrySet()) {
+            if (offset.getValue() > storedOffsets.get(offset.getKey())) {
+                log.info("Ignoring stats snapshot ahead of the database at {}: {} > {}",
+                        offset.getKey(), offset.getValue(), storedOffsets.get(offset.getKey()));
+                return null;
+            }
+        }
+
+        appliedOffsets.putAll(snapshot.offsets());
+        pendingSeeks.putAll(snapshot.offsets());
+        storedOffsets.forEach((partition, stored) -> {
+            if (stored > snapshot.offsets().get(partition)) {
+                replayUntil.put(partition, stored);
+            }
+        });
+        lastWrittenOffsets = Map.copyOf(snapshot.offsets());
+        log.info("Restoring stats snapshot from {}, replaying up to {}", snapshot.createdAt(), replayUntil);
+        return snapshot;
+    }
+
+    /**
+     * The view was rebuilt from the database and reflects every stored offset.
+     */
+    public void rebuilt(Map<TopicPartition, Long> storedOffsets) {
+        appliedOffsets.putAll(storedOffsets);
+    }
+
+    /**
+     * Positions to seek to on the first assignment after a restore: right after
+     * the snapshot offset, unless the committed position is already earlier.
+     */
+    public Map<TopicPartition, Long> seekPositions(Map<TopicPartition, Long> assignments) {
+        Map<TopicPartition, Long> positions = new HashMap<>();
+        assignments.forEach((partition, position) -> {
+            Long snapshotOffset = pendingSeeks.remove(partition);
+            if (snapshotOffset != null && (position == null || snapshotOffset + 1 < position)) {
+                positions.put(partition, snapshotOffset + 1);
+            }
+        });
+        if (!positions.isEmpty()) {
+            log.info("Seeking to stats snapshot positions {}", positions);
+        }
+        return positions;
+    }
+
+    /**
+     * Records that are already in the database but not yet in the restored view.
+     * A partition leaves replay once a committed batch reaches past the stored watermark.
+     */
+    public List<ConsumerRecord<String, TaskUpdatedEvent>> replayable(
+            List<ConsumerRecord<String, TaskUpdatedEvent>> records) {
+        if (replayUntil.isEmpty()) {
+            return List.of();
+        }
+        List<ConsumerRecord<String, TaskUpdatedEvent>> replay = new ArrayList<>();
+        List<TopicPartition> caughtUp = new ArrayList<>();
+        for (ConsumerRecord<String, TaskUpdatedEvent> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            Long until = replayUntil.get(partition);
+            if (until == null) {
+                continue;
+            }
+            if (record.offset() <= until) {
+                replay.add(record);
+            }
+            if (record.offset() >= until) {
+                caughtUp.add(partition);
+            }
+        }
+        afterCommit(() -> caughtUp.forEach(replayUntil::remove));
+        return replay;
+    }
+
+    /**
+     * Called within the listener transaction once the batch is written; the offsets
+     * count as applied after the commit.
+     */
+    public void markApplied(List<ConsumerRecord<String, TaskUpdatedEvent>> records) {
+        Map<TopicPartition, Long> lastOffsets = new HashMap<>();
+        for (ConsumerRecord<String, TaskUpdatedEvent> record : records) {
+            lastOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::max);
+        }
+        afterCommit(() -> lastOffsets.forEach((partition, offset) ->
+                appliedOffsets.merge(partition, offset, Math::max)));
+    }
+
+    /**
+     * Skipped while nothing was consumed since the last checkpoint, and before
+     * any offset is known: such a snapshot could not be checked against the database.
+     */
+    @Scheduled(fixedDelayString = "${stats.snapshot.interval-ms:30000}",
+            initialDelayString = "${stats.snapshot.interval-ms:30000}")
+    public void checkpoint() {
+        if (path == null) {
+            return;
+        }
+        Map<TopicPartition, Long> offsets = Map.copyOf(appliedOffsets);
+        if (offsets.isEmpty() || offsets.equals(lastWrittenOffsets)) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        StatsSnapshot snapshot = new StatsSnapshot(Instant.now(), offsets, aggregate.updatedTaskIds());
+        try {
+            snapshot.write(path);
+            lastWrittenOffsets = offsets;
+            log.debug("Wrote stats snapshot of {} tasks at {} in {} ms", snapshot.updatedTaskIds().getLongCardinality(),
+                    offsets, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Failed to write stats snapshot to {}", path, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Listener containers are stopped before beans are destroyed, so the final
+     * snapshot covers every applied batch and the next start replays nothing.
+     */
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+}
@@ -1,51 +1,283 @@
 package com.balza.statsservice.service;
 
 import com.balza.statsservice.api.StatsView;
+import com.balza.statsservice.events.TaskEventType;
 import com.balza.statsservice.events.TaskUpdatedEvent;
-import com.balza.statsservice.model.TaskUpdate;
-import com.balza.statsservice.repository.TaskUpdateRepository;
+import com.balza.statsservice.model.TaskStatus;
+import com.balza.statsservice.repository.ConsumerOffsetRepository;
+import com.balza.statsservice.repository.StatusCounterRepository;
+import com.balza.statsservice.repository.TaskUpdateBatchRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
-public class StatsService {
+@Slf4j
+public class StatsService implements ConsumerSeekAware {
 
-    private final TaskUpdateRepository repo;
+    private final TaskUpdateWriter taskUpdateWriter;
     private final JdbcTemplate jdbcTemplate;
+    private final StatsAggregate aggregate;
+    private final UpdateRollups updateRollups;
+    private final TaskUpdateBatchRepository taskUpdateBatchRepository;
+    private final StatusCounterRepository statusCounterRepository;
+    private final EventDeduplicator eventDeduplicator;
+    private final EventLatencyTracker eventLatencyTracker;
+    private final ConsumerOffsetRepository consumerOffsetRepository;
+    private final StatsCheckpointer statsCheckpointer;
+
+    /**
+     * Rebuilds the in-memory view before listener containers are started.
+     * Counters and the total are small and always read from the database;
+     * the updated-task set comes from the local snapshot when it is usable,
+     * otherwise from a full scan of stats.task_updates.
+     */
+    @PostConstruct
+    public void rebuildView() {
+        long total = getTotalTasks();
+        Map<TaskStatus, Long> counts = statusCounterRepository.findAll();
+        Map<TopicPartition, Long> offsets = consumerOffsetRepository.findAll();
+        StatsSnapshot snapshot = statsCheckpointer.restore(offsets);
+        if (snapshot != null) {
+            aggregate.reset(snapshot.updatedTaskIds(), total, counts);
+            log.info("Stats view restored from snapshot: {}", aggregate.view());
+            return;
+        }
+
+        Roaring64NavigableMap taskIds = new Roaring64NavigableMap();
+        jdbcTemplate.query(
+                "SELECT task_id FROM stats.task_updates",
+                rs -> {
+                    taskIds.addLong(rs.getLong(1));
+                }
+        );
+        aggregate.reset(taskIds, total, counts);
+        statsCheckpointer.rebuilt(offsets);
+        log.info("Stats view rebuilt from database: {}", aggregate.view());
+    }
 
+    /**
+     * After a restore from a snapshot, moves the partitions back to the snapshot offsets.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        statsCheckpointer.seekPositions(assignments)
+                .forEach((partition, offset) -> callback.seek(partition.topic(), partition.partition(), offset));
+    }
+
+    /**
+     * Handles a whole poll batch. Status counters take a delta from every
+     * event, while task_updates keeps only the newest event per task:
+     * updates are upserted and deletions remove the row.
+     * Redelivered and duplicate records are dropped before anything is written.
+     * The in-memory view changes only after the transaction commits.
+     * Batch processing time is recorded by the container as the
+     * spring.kafka.listener timer tagged with the listener id.
+     */
     @KafkaListener(
+            id = "stats-task-updated",
+            idIsGroup = false,
             topics = "task.updated",
             containerFactory = "taskUpdatedKafkaListenerContainerFactory"
     )
-    public void onTaskUpdated(TaskUpdatedEvent event) {
-        repo.save(TaskUpdate.builder()
-                .taskId(event.getTaskId())
-                .lastUpdated(event.getOccurredAt())
-                .build());
-        updateTotalTasks(event.getTotalTasks());
+    @Transactional
+    public void onTaskUpdated(List<ConsumerRecord<String, TaskUpdatedEvent>> records) {
+        replay(statsCheckpointer.replayable(records));
+        apply(eventDeduplicator.filter(records));
+        eventDeduplicator.commit(records);
+        statsCheckpointer.markApplied(records);
+    }
+
+    /**
+     * Brings a view restored from a snapshot up to date with events the database
+     * already has. Only the updated-task set changes: counters and the total were
+     * read from the database at startup and include these events.
+     */
+    private void replay(List<ConsumerRecord<String, TaskUpdatedEvent>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Map<Long, TaskUpdatedEvent> latestByTask = new HashMap<>();
+        for (ConsumerRecord<String, TaskUpdatedEvent> record : records) {
+            TaskUpdatedEvent event = record.value();
+            if (isApplicable(event)) {
+                latestByTask.merge(event.getTaskId(), event, StatsService::newer);
+            }
+        }
+        List<TaskUpdatedEvent> updated = new ArrayList<>(latestByTask.size());
+        List<Long> deletedIds = new ArrayList<>();
+        splitLatest(latestByTask.values(), updated, deletedIds);
+        List<Long> updatedIds = updated.stream().map(TaskUpdatedEvent::getTaskId).toList();
+        afterCommit(() -> aggregate.apply(updatedIds, deletedIds, Map.of(), null));
+        log.debug("Replayed {} events into the restored view", records.size());
+    }
+
+    private void apply(List<ConsumerRecord<String, TaskUpdatedEvent>> records) {
+        Instant consumedAt = Instant.now();
+        Map<Long, TaskUpdatedEvent> latestByTask = new HashMap<>();
+        Map<TaskStatus, Long> statusDeltas = new EnumMap<>(TaskStatus.class);
+        List<TaskUpdatedEvent> updates = new ArrayList<>(records.size());
+        TaskUpdatedEvent latest = null;
+        for (ConsumerRecord<String, TaskUpdatedEvent> record : records) {
+            TaskUpdatedEvent event = record.value();
+            if (!isApplicable(event)) {
+                continue;
+            }
+            addStatusDelta(statusDeltas, event);
+            if (event.isUpdate()) {
+                updates.add(event);
+            }
+            latestByTask.merge(event.getTaskId(), event, StatsService::newer);
+            latest = latest == null ? event : later(latest, event);
+        }
+        if (latest == null) {
+            return;
+        }
+
+        List<TaskUpdatedEvent> updated = new ArrayList<>(latestByTask.size());
+        List<Long> deletedIds = new ArrayList<>();
+        splitLatest(latestByTask.values(), updated, deletedIds);
+        taskUpdateWriter.write(updated);
+        taskUpdateBatchRepository.deleteAll(deletedIds);
+        statusCounterRepository.addAll(statusDeltas);
+        Long total = latest.getTotalTasks() != null
+                && updateTotalTasks(latest.getTotalTasks(), latest.getTotalTasksVersion())
+                ? latest.getTotalTasks()
+                : null;
+        List<Long> updatedIds = updated.stream().map(TaskUpdatedEvent::getTaskId).toList();
+        afterCommit(() -> aggregate.apply(updatedIds, deletedIds, statusDeltas, total));
+        afterCommit(() -> updateRollups.record(updates, consumedAt));
+        eventLatencyTracker.record(records, consumedAt);
     }
 
-    public void updateTotalTasks(Long total) {
-        jdbcTemplate.update("DELETE FROM stats.total_tasks");
-        jdbcTemplate.update("INSERT INTO stats.total_tasks(total) VALUES (?)", total);
+    /**
+     * Stores the total only if its counter version is newer than the stored one,
+     * so an out-of-order event never rolls the total back. Events without a version
+     * predate it and only overwrite a total that has none either.
+     *
+     * @return whether the total was stored
+     */
+    public boolean updateTotalTasks(long total, Long version) {
+        int updated = version == null
+                ? jdbcTemplate.update(
+                "UPDATE stats.total_tasks SET total = ? WHERE total_version IS NULL", total)
+                : jdbcTemplate.update(
+                "UPDATE stats.total_tasks SET total = ?, total_version = ? "
+                        + "WHERE total_version IS NULL OR total_version < ?",
+                total, version, version);
+        if (updated > 0) {
+            return true;
+        }
+        Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM stats.total_tasks", Long.class);
+        if (rows != null && rows > 0) {
+            return false;
+        }
+        jdbcTemplate.update("INSERT INTO stats.total_tasks(total, total_version) VALUES (?, ?)", total, version);
+        return true;
     }
 
-    public Long getTotalTasks() {
-        return jdbcTemplate.queryForObject(
+    public long getTotalTasks() {
+        List<Long> totals = jdbcTemplate.queryForList(
                 "SELECT total FROM stats.total_tasks LIMIT 1",
                 Long.class
         );
+        return totals.isEmpty() ? 0L : totals.get(0);
     }
 
     public StatsView getStats() {
-        long updated = repo.countUpdatedTasks();
-        long total = getTotalTasks();
-        double percent = total == 0 ? 0.0 : (updated * 100.0) / total;
-        return new StatsView(total, updated, percent);
+        return aggregate.view();
+    }
+
+    /**
+     * In-memory state must not move ahead of the database: a batch whose transaction
+     * rolls back is redelivered and would be counted twice.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean isApplicable(TaskUpdatedEvent event) {
+        return event != null && event.getTaskId() != null && event.getOccurredAt() != null;
     }
 
+    /**
+     * The latest event of a task decides whether it counts as updated or is removed.
+     */
+    private static void splitLatest(Collection<TaskUpdatedEvent> latest,
+                                    List<TaskUpdatedEvent> updated,
+                                    List<Long> deletedIds) {
+        for (TaskUpdatedEvent event : latest) {
+            if (event.resolvedEventType() == TaskEventType.TASK_DELETED) {
+                deletedIds.add(event.getTaskId());
+            } else if (event.isUpdate()) {
+                updated.add(event);
+            }
+        }
+    }
+
+    private static void addStatusDelta(Map<TaskStatus, Long> deltas, TaskUpdatedEvent event) {
+        TaskStatus oldStatus = event.getOldStatus();
+        TaskStatus newStatus = event.getNewStatus();
+        switch (event.resolvedEventType()) {
+            case TASK_CREATED -> oldStatus = null;
+            case TASK_DELETED -> newStatus = null;
+            default -> {
+                if (oldStatus == null || newStatus == null || oldStatus == newStatus) {
+                    return;
+                }
+            }
+        }
+        if (oldStatus != null) {
+            deltas.merge(oldStatus, -1L, Long::sum);
+        }
+        if (newStatus != null) {
+            deltas.merge(newStatus, 1L, Long::sum);
+        }
+    }
 
+    /**
+     * The event carrying the newer total. totalTasksVersion is the version of the
+     * todo-app counter row, bumped under its row lock, so it follows the order in
+     * which totals were committed. Neither the event id, taken from a sequence at
+     * insert time and relayed out of order, nor occurredAt, taken before the
+     * transaction, do.
+     */
+    private static TaskUpdatedEvent later(TaskUpdatedEvent a, TaskUpdatedEvent b) {
+        if (a.getTotalTasksVersion() != null && b.getTotalTasksVersion() != null) {
+            return b.getTotalTasksVersion() < a.getTotalTasksVersion() ? a : b;
+        }
+        return newer(a, b);
+    }
+
+    private static TaskUpdatedEvent newer(TaskUpdatedEvent a, TaskUpdatedEvent b) {
+        return b.getOccurredAt().isBefore(a.getOccurredAt()) ? a : b;
+    }
 }
@@ -0,0 +1,141 @@
+package com.balza.statsservice.service;
+
+import org.apache.kafka.common.TopicPartition;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoint of the in-memory view: the updated-task id set and, per partition,
+ * the offset up to which every event is reflected in it.
+ * <p>
+ * File layout (big-endian), version 2:
+ * <pre>
+ * int    magic "STSN"
+ * int    version
+ * long   createdAt, epoch millis
+ * int    partition count, then per partition:
+ *        short topic length, topic UTF-8 bytes, int partition, long offset
+ * int    bitmap length, then the task id bitmap in the portable 64-bit Roaring format
+ * long   CRC32 of all preceding bytes
+ * </pre>
+ * Files of any other version are rejected, and the view is rebuilt from the database instead.
+ * The file is written to a temporary sibling through a memory mapping, forced
+ * to disk and renamed over the old one, so readers see either the previous or
+ * the new snapshot, never a partial one.
+ */
+public record StatsSnapshot(Instant createdAt,
+                            Map<TopicPartition, Long> offsets,
+                            Roaring64NavigableMap updatedTaskIds) {
+
+    static final int MAGIC = 0x5354534E;
+    static final int VERSION = 2;
+
+    public void write(Path path) throws IOException {
+        updatedTaskIds.runOptimize();
+        ByteArrayOutputStream bitmap = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bitmap)) {
+            updatedTaskIds.serializePortable(out);
+        }
+
+        Map<TopicPartition, byte[]> topics = new HashMap<>();
+        long size = 4 + 4 + 8 + 4 + 4 + bitmap.size() + 8;
+        for (TopicPartition partition : offsets.keySet()) {
+            byte[] topic = partition.topic().getBytes(StandardCharsets.UTF_8);
+            topics.put(partition, topic);
+            size += 2 + topic.length + 4 + 8;
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = parent.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(createdAt.toEpochMilli())
+                    .putInt(offsets.size());
+            offsets.forEach((partition, offset) -> {
+                byte[] topic = topics.get(partition);
+                buffer.putShort((short) topic.length)
+                        .put(topic)
+                        .putInt(partition.partition())
+                        .putLong(offset);
+            });
+            buffer.putInt(bitmap.size())
+                    .put(bitmap.toByteArray());
+            buffer.putLong(checksum(buffer, buffer.position()));
+            buffer.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws IOException if the file is missing, truncated, corrupted or of another version
+     */
+    public static StatsSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 4 + 4 + 8 + 4 + 4 + 8) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(path + " is not a stats snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+            if (buffer.getLong((int) size - 8) != checksum(buffer, (int) size - 8)) {
+                throw new IOException("Checksum mismatch in snapshot " + path);
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+            int partitions = buffer.getInt();
+            Map<TopicPartition, Long> offsets = new HashMap<>();
+            for (int i = 0; i < partitions; i++) {
+                byte[] topic = new byte[buffer.getShort()];
+                buffer.get(topic);
+                offsets.put(new TopicPartition(new String(topic, StandardCharsets.UTF_8), buffer.getInt()),
+                        buffer.getLong());
+            }
+            return new StatsSnapshot(createdAt, offsets, readBitmap(buffer));
+        } catch (RuntimeException e) {
+            // BufferUnderflowException and friends from a malformed file
+            throw new IOException("Malformed snapshot " + path, e);
+        }
+    }
+
+    private static Roaring64NavigableMap readBitmap(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        Roaring64NavigableMap ids = new Roaring64NavigableMap();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            ids.deserializePortable(in);
+        }
+        return ids;
+    }
+
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+}
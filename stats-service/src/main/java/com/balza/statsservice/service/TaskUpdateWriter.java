@@ -0,0 +1,113 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.events.TaskUpdatedEvent;
+import com.balza.statsservice.repository.TaskUpdateBatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes deduplicated task updates to stats.task_updates.
+ * <p>
+ * With stats.listener.parallel-workers greater than 1 a large batch is split
+ * into shards by taskId and every shard is upserted in its own transaction
+ * on a worker pool. A task always lands in the same shard, so updates of one
+ * task are never written concurrently. The call returns only after every shard
+ * is committed, and the container commits offsets only after the listener returns.
+ * If any shard fails, the whole batch is redelivered. That is safe because the
+ * upsert never replaces a newer timestamp.
+ */
+@Component
+@Slf4j
+public class TaskUpdateWriter {
+
+    private final TaskUpdateBatchRepository batchRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int minParallelBatch;
+    private final ExecutorService executor;
+
+    public TaskUpdateWriter(TaskUpdateBatchRepository batchRepo,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${stats.listener.parallel-workers:0}") int workers,
+                            @Value("${stats.listener.min-parallel-batch:200}") int minParallelBatch) {
+        this.batchRepo = batchRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.minParallelBatch = minParallelBatch;
+        this.executor = workers > 1 ? Executors.newFixedThreadPool(workers, workerThreadFactory()) : null;
+    }
+
+    public void write(Collection<TaskUpdatedEvent> events) {
+        if (executor == null || events.size() < minParallelBatch) {
+            batchRepo.upsertAll(events);
+            return;
+        }
+
+        List<List<TaskUpdatedEvent>> shards = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            shards.add(new ArrayList<>(events.size() / workers + 1));
+        }
+        for (TaskUpdatedEvent event : events) {
+            shards.get(Math.floorMod(event.getTaskId().hashCode(), workers)).add(event);
+        }
+
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (List<TaskUpdatedEvent> shard : shards) {
+            if (!shard.isEmpty()) {
+                futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                        status -> batchRepo.upsertAll(shard))));
+            }
+        }
+        awaitAll(futures);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while writing task updates", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("Failed to write task updates shard", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "stats-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
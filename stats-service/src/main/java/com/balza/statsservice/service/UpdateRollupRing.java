@@ -0,0 +1,125 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.model.RollupGranularity;
+import com.balza.statsservice.repository.UpdateRollupRepository.RollupRow;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fixed-size ring of rollup buckets for one granularity. A slot is reused
+ * when a newer bucket maps to it; events older than the retained range are dropped.
+ * Not thread-safe, guarded by {@link UpdateRollups}.
+ */
+class UpdateRollupRing {
+
+    private final RollupGranularity granularity;
+    private final Bucket[] slots;
+
+    UpdateRollupRing(RollupGranularity granularity) {
+        this.granularity = granularity;
+        this.slots = new Bucket[granularity.retainedBuckets()];
+    }
+
+    void record(long taskId, long occurredEpochSecond, long lagMs) {
+        Bucket bucket = bucketFor(granularity.bucketOf(occurredEpochSecond));
+        if (bucket == null) {
+            return;
+        }
+        bucket.updates++;
+        HyperLogLog.add(bucket.sketch, taskId);
+        LagHistogram.record(bucket.lagHistogram, lagMs);
+        bucket.dirty = true;
+    }
+
+    void restore(RollupRow row) {
+        Bucket bucket = bucketFor(granularity.bucketOf(row.bucketStart().getEpochSecond()));
+        if (bucket == null || bucket.updates > 0) {
+            return;
+        }
+        bucket.updates = row.updates();
+        System.arraycopy(row.sketch(), 0, bucket.sketch, 0, Math.min(row.sketch().length, bucket.sketch.length));
+        System.arraycopy(row.lagHistogram(), 0, bucket.lagHistogram, 0,
+                Math.min(row.lagHistogram().length, bucket.lagHistogram.length));
+    }
+
+    /**
+     * Copies buckets changed since the previous call and clears their dirty flag.
+     */
+    List<RollupRow> drainDirty() {
+        List<RollupRow> rows = new ArrayList<>();
+        for (Bucket bucket : slots) {
+            if (bucket != null && bucket.dirty) {
+                rows.add(bucket.toRow());
+                bucket.dirty = false;
+            }
+        }
+        return rows;
+    }
+
+    void markDirty(Instant bucketStart) {
+        long index = granularity.bucketOf(bucketStart.getEpochSecond());
+        Bucket bucket = slots[(int) Math.floorMod(index, (long) slots.length)];
+        if (bucket != null && bucket.index == index) {
+            bucket.dirty = true;
+        }
+    }
+
+    List<RollupRow> range(Instant from, Instant to) {
+        long fromIndex = granularity.bucketOf(from.getEpochSecond());
+        long toIndex = granularity.bucketOf(to.getEpochSecond());
+        List<RollupRow> rows = new ArrayList<>();
+        for (Bucket bucket : slots) {
+            if (bucket != null && bucket.updates > 0 && bucket.index >= fromIndex && bucket.index <= toIndex) {
+                rows.add(bucket.toRow());
+            }
+        }
+        rows.sort(Comparator.comparing(RollupRow::bucketStart));
+        return rows;
+    }
+
+    /**
+     * Start of the oldest bucket the ring can still hold, relative to the newest one seen.
+     */
+    Instant retainedSince(Instant now) {
+        long newest = granularity.bucketOf(now.getEpochSecond());
+        long oldest = newest - slots.length + 1;
+        return Instant.ofEpochSecond(oldest * granularity.bucketSeconds());
+    }
+
+    private Bucket bucketFor(long index) {
+        int slot = (int) Math.floorMod(index, (long) slots.length);
+        Bucket bucket = slots[slot];
+        if (bucket == null || bucket.index < index) {
+            bucket = new Bucket(index);
+            slots[slot] = bucket;
+        } else if (bucket.index > index) {
+            return null;
+        }
+        return bucket;
+    }
+
+    private final class Bucket {
+        private final long index;
+        private final byte[] sketch = HyperLogLog.newSketch();
+        private final long[] lagHistogram = LagHistogram.newHistogram();
+        private long updates;
+        private boolean dirty;
+
+        private Bucket(long index) {
+            this.index = index;
+        }
+
+        private RollupRow toRow() {
+            return new RollupRow(
+                    granularity,
+                    Instant.ofEpochSecond(index * granularity.bucketSeconds()),
+                    updates,
+                    sketch.clone(),
+                    lagHistogram.clone()
+            );
+        }
+    }
+}
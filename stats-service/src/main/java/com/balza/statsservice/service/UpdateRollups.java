@@ -0,0 +1,110 @@
+package com.balza.statsservice.service;
+
+import com.balza.statsservice.api.RollupView;
+import com.balza.statsservice.events.TaskUpdatedEvent;
+import com.balza.statsservice.model.RollupGranularity;
+import com.balza.statsservice.repository.UpdateRollupRepository;
+import com.balza.statsservice.repository.UpdateRollupRepository.RollupRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time-bucketed update statistics kept in fixed-size in-memory rings
+ * (see {@link RollupGranularity} for widths and retention): update count,
+ * approximate distinct tasks and lag between occurredAt and consumption.
+ * Changed buckets are flushed to stats.update_rollups periodically
+ * and loaded back on startup; older ranges are served from that table.
+ */
+@Component
+@Slf4j
+public class UpdateRollups {
+
+    private final UpdateRollupRepository rollupRepository;
+    private final Map<RollupGranularity, UpdateRollupRing> rings = new EnumMap<>(RollupGranularity.class);
+
+    public UpdateRollups(UpdateRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            rings.put(granularity, new UpdateRollupRing(granularity));
+        }
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        Instant now = Instant.now();
+        int restored = 0;
+        for (Map.Entry<RollupGranularity, UpdateRollupRing> ring : rings.entrySet()) {
+            List<RollupRow> rows = rollupRepository.findRange(
+                    ring.getKey(), ring.getValue().retainedSince(now), now.plusSeconds(ring.getKey().bucketSeconds()));
+            rows.forEach(ring.getValue()::restore);
+            restored += rows.size();
+        }
+        log.info("Restored {} rollup buckets from database", restored);
+    }
+
+    public synchronized void record(Collection<TaskUpdatedEvent> events, Instant consumedAt) {
+        long consumedAtMs = consumedAt.toEpochMilli();
+        for (TaskUpdatedEvent event : events) {
+            long occurredAtMs = event.getOccurredAt().toEpochMilli();
+            long occurredEpochSecond = event.getOccurredAt().getEpochSecond();
+            for (UpdateRollupRing ring : rings.values()) {
+                ring.record(event.getTaskId(), occurredEpochSecond, consumedAtMs - occurredAtMs);
+            }
+        }
+    }
+
+    /**
+     * Buckets of the given width in [from, to]: the retained part comes from memory,
+     * anything older from stats.update_rollups.
+     */
+    public List<RollupView> query(RollupGranularity granularity, Instant from, Instant to) {
+        List<RollupRow> memoryRows;
+        Instant retainedSince;
+        synchronized (this) {
+            UpdateRollupRing ring = rings.get(granularity);
+            retainedSince = ring.retainedSince(Instant.now());
+            memoryRows = ring.range(from.isBefore(retainedSince) ? retainedSince : from, to);
+        }
+        List<RollupRow> rows = new ArrayList<>();
+        if (from.isBefore(retainedSince)) {
+            rows.addAll(rollupRepository.findRange(granularity, from, to.isBefore(retainedSince) ? to : retainedSince));
+        }
+        rows.addAll(memoryRows);
+        return rows.stream()
+                .map(row -> new RollupView(row.bucketStart(), row.updates(), row.distinctTasks(),
+                        row.lagP50Ms(), row.lagP99Ms()))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${stats.rollups.flush-interval-ms:60000}")
+    public void flush() {
+        List<RollupRow> dirty = new ArrayList<>();
+        synchronized (this) {
+            rings.values().forEach(ring -> dirty.addAll(ring.drainDirty()));
+        }
+        try {
+            rollupRepository.upsertAll(dirty);
+            log.debug("Flushed {} rollup buckets", dirty.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} rollup buckets, will retry", dirty.size(), e);
+            synchronized (this) {
+                dirty.forEach(row -> rings.get(row.granularity()).markDirty(row.bucketStart()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
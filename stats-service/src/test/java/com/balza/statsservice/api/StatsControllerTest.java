@@ -0,0 +1,149 @@
+package com.balza.statsservice.api;
+
+import com.balza.statsservice.model.LatencyStage;
+import com.balza.statsservice.model.RollupGranularity;
+import com.balza.statsservice.model.TaskStatus;
+import com.balza.statsservice.service.EventLatencyTracker;
+import com.balza.statsservice.service.StatsBroadcaster;
+import com.balza.statsservice.service.StatsService;
+import com.balza.statsservice.service.UpdateRollups;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * stats-service is compiled without -parameters, so request parameters only
+ * bind when they are named explicitly; these tests go through the real binding.
+ */
+@WebMvcTest(StatsController.class)
+@DisplayName("StatsController")
+class StatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StatsService statsService;
+
+    @MockBean
+    private StatsBroadcaster statsBroadcaster;
+
+    @MockBean
+    private UpdateRollups updateRollups;
+
+    @MockBean
+    private EventLatencyTracker eventLatencyTracker;
+
+    @Test
+    @DisplayName("GET /api/stats returns the in-memory view")
+    void getStatsReturnsView() throws Exception {
+        when(statsService.getStats()).thenReturn(
+                new StatsView(4, 1, 25.0, Map.of(TaskStatus.TODO, 3L, TaskStatus.DONE, 1L)));
+
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTasks").value(4))
+                .andExpect(jsonPath("$.updatedTasks").value(1))
+                .andExpect(jsonPath("$.tasksByStatus.TODO").value(3));
+    }
+
+    @Test
+    @DisplayName("GET /api/stats/rollups binds granularity, from and to")
+    void getRollupsBindsParameters() throws Exception {
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-02T00:00:00Z");
+        when(updateRollups.query(RollupGranularity.HOUR, from, to)).thenReturn(
+                List.of(new RollupView(from, 7, 5, 12, 250)));
+
+        mockMvc.perform(get("/api/stats/rollups")
+                        .param("granularity", "HOUR")
+                        .param("from", "2026-10-01T00:00:00Z")
+                        .param("to", "2026-10-02T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].updates").value(7))
+                .andExpect(jsonPath("$[0].distinctTasks").value(5))
+                .andExpect(jsonPath("$[0].lagP99Ms").value(250));
+    }
+
+    @Test
+    @DisplayName("GET /api/stats/rollups defaults to the last 24 minute buckets")
+    void getRollupsUsesDefaults() throws Exception {
+        when(updateRollups.query(eq(RollupGranularity.MINUTE), any(), any())).thenAnswer(invocation -> {
+            Instant from = invocation.getArgument(1);
+            Instant to = invocation.getArgument(2);
+            return List.of(new RollupView(from, Duration.between(from, to).toMinutes(), 0, 0, 0));
+        });
+
+        mockMvc.perform(get("/api/stats/rollups"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].updates").value(24));
+    }
+
+    @Test
+    @DisplayName("GET /api/stats/rollups rejects from after to")
+    void getRollupsRejectsInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/stats/rollups")
+                        .param("from", "2026-10-02T00:00:00Z")
+                        .param("to", "2026-10-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+
+        verify(updateRollups, never()).query(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/stats/rollups rejects an unknown granularity")
+    void getRollupsRejectsUnknownGranularity() throws Exception {
+        mockMvc.perform(get("/api/stats/rollups").param("granularity", "WEEK"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/stats/latency binds the window")
+    void getLatencyBindsWindow() throws Exception {
+        when(eventLatencyTracker.retentionMs()).thenReturn(Duration.ofMinutes(30).toMillis());
+        when(eventLatencyTracker.query(Duration.ofSeconds(30))).thenReturn(new LatencyView(
+                Duration.ofSeconds(30), 5000, false,
+                List.of(new LatencyView.StageLatency(LatencyStage.PRODUCED_TO_APPLIED, 10, 5, 8, 9, 9, 9))));
+
+        mockMvc.perform(get("/api/stats/latency").param("window", "30s"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stages[0].count").value(10));
+    }
+
+    @Test
+    @DisplayName("GET /api/stats/latency rejects a window beyond the retention")
+    void getLatencyRejectsWindowBeyondRetention() throws Exception {
+        when(eventLatencyTracker.retentionMs()).thenReturn(Duration.ofMinutes(30).toMillis());
+
+        mockMvc.perform(get("/api/stats/latency").param("window", "1h"))
+                .andExpect(status().isBadRequest());
+
+        verify(eventLatencyTracker, never()).query(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/stats/stream returns 503 when the subscriber limit is reached")
+    void streamReturnsUnavailableWhenFull() throws Exception {
+        when(statsBroadcaster.subscribe()).thenReturn(null);
+
+        mockMvc.perform(get("/api/stats/stream"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
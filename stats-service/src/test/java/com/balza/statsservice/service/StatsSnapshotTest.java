@@ -0,0 +1,158 @@
+package com.balza.statsservice.service;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StatsSnapshot")
+class StatsSnapshotTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-10-17T12:00:00.123Z");
+    private static final Map<TopicPartition, Long> OFFSETS = Map.of(
+            new TopicPartition("task.updated", 0), 41L,
+            new TopicPartition("task.updated", 1), 7L);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("reads back what it wrote")
+    void writeThenReadRoundTrips() throws IOException {
+        Path path = dir.resolve("stats.snapshot");
+        Roaring64NavigableMap ids = Roaring64NavigableMap.bitmapOf(1L, 2L, 3L, 1_000_000L, 5_000_000_000L);
+        ids.addRange(10_000L, 20_000L);
+
+        new StatsSnapshot(CREATED_AT, OFFSETS, ids).write(path);
+        StatsSnapshot read = StatsSnapshot.read(path);
+
+        assertThat(read.createdAt()).isEqualTo(CREATED_AT);
+        assertThat(read.offsets()).isEqualTo(OFFSETS);
+        assertThat(read.updatedTaskIds()).isEqualTo(ids);
+        assertThat(Files.exists(dir.resolve("stats.snapshot.tmp"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("replaces an existing snapshot")
+    void writeReplacesPreviousSnapshot() throws IOException {
+        Path path = dir.resolve("stats.snapshot");
+        new StatsSnapshot(CREATED_AT, OFFSETS, Roaring64NavigableMap.bitmapOf(1L, 2L)).write(path);
+        new StatsSnapshot(CREATED_AT.plusSeconds(30), Map.of(new TopicPartition("task.updated", 0), 50L),
+                Roaring64NavigableMap.bitmapOf(3L)).write(path);
+
+        StatsSnapshot read = StatsSnapshot.read(path);
+
+        assertThat(read.createdAt()).isEqualTo(CREATED_AT.plusSeconds(30));
+        assertThat(read.offsets()).containsOnlyKeys(new TopicPartition("task.updated", 0));
+        assertThat(read.updatedTaskIds().toArray()).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("rejects version 1 files with a plain id array")
+    void rejectsVersion1() throws IOException {
+        Path path = dir.resolve("stats.snapshot");
+        ByteBuffer buffer = ByteBuffer.allocate(256)
+                .putInt(StatsSnapshot.MAGIC)
+                .putInt(1)
+                .putLong(CREATED_AT.toEpochMilli())
+                .putInt(0)
+                .putInt(2)
+                .putLong(5L)
+                .putLong(9L);
+        Files.write(path, withChecksum(buffer));
+
+        assertThatThrownBy(() -> StatsSnapshot.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unsupported snapshot version 1");
+    }
+
+    @Test
+    @DisplayName("rejects a file whose checksum does not match")
+    void rejectsChecksumMismatch() throws IOException {
+        Path path = dir.resolve("stats.snapshot");
+        new StatsSnapshot(CREATED_AT, OFFSETS, Roaring64NavigableMap.bitmapOf(1L, 2L, 3L)).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(path, bytes);
+
+        assertThatThrownBy(() -> StatsSnapshot.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Checksum mismatch");
+    }
+
+    @Test
+    @DisplayName("rejects a file cut short")
+    void rejectsTruncatedFile() throws IOException {
+        Path path = dir.resolve("stats.snapshot");
+        new StatsSnapshot(CREATED_AT, OFFSETS, Roaring64NavigableMap.bitmapOf(1L, 2L, 3L)).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThatThrownBy(() -> StatsSnapshot.read(path)).isInstanceOf(IOException.class);
+
+        Files.write(path, Arrays.copyOf(bytes, 12));
+        assertThatThrownBy(() -> StatsSnapshot.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    @Test
+    @DisplayName("rejects a file whose layout does not match its length")
+    void rejectsMalformedFileWithValidChecksum() throws IOException {
+        Path path = dir.resolve("stats.snapshot");
+        ByteBuffer buffer = ByteBuffer.allocate(64)
+                .putInt(StatsSnapshot.MAGIC)
+                .putInt(StatsSnapshot.VERSION)
+                .putLong(CREATED_AT.toEpochMilli())
+                .putInt(0)
+                .putInt(1_000);
+        Files.write(path, withChecksum(buffer));
+
+        assertThatThrownBy(() -> StatsSnapshot.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Malformed");
+    }
+
+    @Test
+    @DisplayName("rejects an unknown version")
+    void rejectsUnknownVersion() throws IOException {
+        Path path = dir.resolve("stats.snapshot");
+        ByteBuffer buffer = ByteBuffer.allocate(64)
+                .putInt(StatsSnapshot.MAGIC)
+                .putInt(StatsSnapshot.VERSION + 1)
+                .putLong(CREATED_AT.toEpochMilli())
+                .putInt(0)
+                .putInt(0);
+        Files.write(path, withChecksum(buffer));
+
+        assertThatThrownBy(() -> StatsSnapshot.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unsupported snapshot version");
+    }
+
+    /**
+     * The written part of the buffer followed by its CRC32, as the snapshot trailer.
+     */
+    private static byte[] withChecksum(ByteBuffer buffer) {
+        byte[] body = Arrays.copyOf(buffer.array(), buffer.position());
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return ByteBuffer.allocate(body.length + Long.BYTES)
+                .put(body)
+                .putLong(crc.getValue())
+                .array();
+    }
+}
@@ -3,9 +3,11 @@ package com.balza.todoapp;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.balza.todoapp.client")
+@EnableScheduling
 public class TodoAppApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,152 @@
+package com.balza.todoapp.cache;
+
+import com.balza.todoapp.client.StatsClient;
+import com.balza.todoapp.client.StatsView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Кэш статистики stats-service перед {@link StatsClient}.
+ * <ul>
+ *     <li>в пределах ttl ответ отдается из памяти;</li>
+ *     <li>после ttl, но в пределах stale-окна, отдается устаревшее значение,
+ *     а обновление запускается в фоне;</li>
+ *     <li>одновременно выполняется не больше одного запроса к stats-service,
+ *     все ожидающие вызовы получают его результат;</li>
+ *     <li>при промахе вызов ждет не дольше miss-timeout, даже если запрос завис.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class RemoteStatsCache {
+
+    private final StatsClient statsClient;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final long missTimeoutMs;
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "remote-stats-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicReference<CompletableFuture<StatsView>> inFlight = new AtomicReference<>();
+    private volatile Entry entry;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    public RemoteStatsCache(StatsClient statsClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${stats-client.cache.ttl-ms:1000}") long ttlMs,
+                            @Value("${stats-client.cache.stale-ms:10000}") long staleMs,
+                            @Value("${stats-client.cache.miss-timeout-ms:2500}") long missTimeoutMs) {
+        this.statsClient = statsClient;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.staleNanos = staleMs * 1_000_000;
+        this.missTimeoutMs = missTimeoutMs;
+        this.hits = requests(meterRegistry, "hit");
+        this.staleHits = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("stats.remote.cache.hit.ratio", this, RemoteStatsCache::hitRatio)
+                .description("Share of remote stats requests served without waiting for stats-service")
+                .register(meterRegistry);
+    }
+
+    public StatsView getStats() {
+        Entry current = entry;
+        if (current != null) {
+            long age = System.nanoTime() - current.fetchedAt();
+            if (age < ttlNanos) {
+                hits.increment();
+                return current.view();
+            }
+            if (age < ttlNanos + staleNanos) {
+                staleHits.increment();
+                refresh();
+                return current.view();
+            }
+        }
+        misses.increment();
+        try {
+            return refresh().get(missTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("No response from stats-service in " + missTimeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for stats-service", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Возвращает текущий запрос к stats-service или запускает новый.
+     */
+    private CompletableFuture<StatsView> refresh() {
+        CompletableFuture<StatsView> existing = inFlight.get();
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<StatsView> created = new CompletableFuture<>();
+        if (!inFlight.compareAndSet(null, created)) {
+            return inFlight.get();
+        }
+        try {
+            refreshExecutor.execute(() -> fetch(created));
+        } catch (RuntimeException e) {
+            // иначе inFlight остался бы незавершенным и все следующие промахи ждали бы его
+            inFlight.set(null);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private void fetch(CompletableFuture<StatsView> created) {
+        // inFlight сбрасывается до завершения future, чтобы следующий вызов
+        // не получил уже завершенный запрос вместо нового
+        try {
+            StatsView view = statsClient.getStats();
+            entry = new Entry(view, System.nanoTime());
+            inFlight.set(null);
+            created.complete(view);
+        } catch (RuntimeException e) {
+            log.warn("Failed to fetch stats from stats-service", e);
+            inFlight.set(null);
+            created.completeExceptionally(e);
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + staleHits.count() + misses.count();
+        return total == 0 ? 0.0 : (hits.count() + staleHits.count()) / total;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("stats.remote.cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(StatsView view, long fetchedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.balza.todoapp.cache;
+
+import com.balza.todoapp.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+
+@Component
+public class TaskCacheEvictor {
+    private final Cache cache;
+
+    public TaskCacheEvictor(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.TASKS_CACHE));
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        ids.forEach(cache::evict);
+    }
+}
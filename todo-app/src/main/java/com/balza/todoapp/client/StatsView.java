@@ -1,10 +1,15 @@
 package com.balza.todoapp.client;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 public class StatsView {
     private Long totalTasks;
     private Long updatedTasks;
+    @JsonAlias("updatedPercent")
     private Double updatedPercentage;
+    private Map<String, Long> tasksByStatus;
 }
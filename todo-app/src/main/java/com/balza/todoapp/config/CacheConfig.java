@@ -0,0 +1,34 @@
+package com.balza.todoapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String TASKS_CACHE = "tasks";
+
+    /**
+     * Кэш оборачивается в transaction-aware прокси: put и evict выполняются
+     * только после коммита, поэтому в кэш не попадают данные откатившейся
+     * транзакции, а запись не удаляется до того, как изменение стало видно.
+     * <p>
+     * Гонку с чтением это не закрывает: если чтение загрузило строку до коммита
+     * изменения, а put сделало уже после evict, в кэше остается старое значение.
+     * Обычно его убирает повторный evict по событию из Kafka, который приходит
+     * и на тот экземпляр, где было изменение, но гарантирует это только
+     * expireAfterWrite из task-cache.spec.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${task-cache.spec}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(TASKS_CACHE);
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,85 @@
+package com.balza.todoapp.config;
+
+import com.balza.todoapp.events.TaskUpdatedEvent;
+import com.balza.todoapp.events.TaskUpdatedEventDeserializer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "task-cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrap;
+
+    /**
+     * Consumer group экземпляра для сброса кэша: task-cache.invalidation.instance-id,
+     * а если он не задан, имя хоста и порт. Если на одном хосте и порту в разное
+     * время работают разные экземпляры, это не мешает: группа одна и та же,
+     * а читают они все равно только новые события.
+     */
+    @Bean
+    public String taskCacheInvalidationGroupId(
+            @Value("${task-cache.invalidation.group-prefix:todo-app-cache}") String prefix,
+            @Value("${task-cache.invalidation.instance-id:}") String instanceId,
+            @Value("${server.port:8080}") int port) {
+        return prefix + "-" + (instanceId.isBlank() ? hostName() + "-" + port : instanceId);
+    }
+
+    @Bean
+    public ConsumerFactory<String, TaskUpdatedEvent> taskCacheInvalidationConsumerFactory(ObjectMapper objectMapper,
+                                                                                          MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        // каждому экземпляру нужны все события, поэтому читаем только новые
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        JsonDeserializer<TaskUpdatedEvent> jsonDeserializer = new JsonDeserializer<>(
+                TaskUpdatedEvent.class,
+                objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+                false
+        );
+        DefaultKafkaConsumerFactory<String, TaskUpdatedEvent> factory = new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new TaskUpdatedEventDeserializer(jsonDeserializer))
+        );
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TaskUpdatedEvent>
+    taskCacheInvalidationKafkaListenerContainerFactory(ConsumerFactory<String, TaskUpdatedEvent> taskCacheInvalidationConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, TaskUpdatedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(taskCacheInvalidationConsumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve the host name, set task-cache.invalidation.instance-id", e);
+        }
+    }
+}
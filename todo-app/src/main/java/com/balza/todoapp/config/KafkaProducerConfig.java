@@ -1,38 +1,74 @@
 package com.balza.todoapp.config;
 
+import com.balza.todoapp.events.RelayedAtHeaderInterceptor;
+import com.balza.todoapp.events.TaskEventFormat;
 import com.balza.todoapp.events.TaskUpdatedEvent;
+import com.balza.todoapp.events.TaskUpdatedEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(TaskProducerProperties.class)
+@Slf4j
 public class KafkaProducerConfig {
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrap;
 
+    @Value("${task-events.format:json}")
+    private TaskEventFormat eventFormat;
+
+    /**
+     * Метрики продюсера (kafka.producer.record.send.rate, batch.size.avg, request.latency.avg и др.)
+     * публикуются в /actuator/metrics с тегом profile, чтобы профили можно было сравнить.
+     */
     @Bean
-    public ProducerFactory<String, TaskUpdatedEvent> taskUpdatedProducerFactory() {
+    public ProducerFactory<String, TaskUpdatedEvent> taskUpdatedProducerFactory(TaskProducerProperties producerProperties,
+                                                                                MeterRegistry meterRegistry) {
+        TaskProducerProperties.Profile profile = producerProperties.activeProfile();
+        log.info("Using task.updated producer profile '{}': {}", producerProperties.profile(), profile);
+
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
-        props.put(ProducerConfig.ACKS_CONFIG, "all");
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false); // чистый JSON
-        return new DefaultKafkaProducerFactory<>(props);
+        props.put(ProducerConfig.ACKS_CONFIG, profile.acks());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, profile.lingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, profile.batchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.compressionType());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, profile.enableIdempotence());
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, profile.maxInFlightRequestsPerConnection());
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerProperties.maxBlockMs());
+        JsonSerializer<TaskUpdatedEvent> jsonSerializer = new JsonSerializer<TaskUpdatedEvent>()
+                .noTypeInfo(); // чистый JSON
+        DefaultKafkaProducerFactory<String, TaskUpdatedEvent> factory = new DefaultKafkaProducerFactory<>(
+                props, new StringSerializer(), new TaskUpdatedEventSerializer(eventFormat, jsonSerializer)
+        );
+        factory.addListener(new MicrometerProducerListener<>(
+                meterRegistry, List.of(Tag.of("profile", producerProperties.profile()))
+        ));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, TaskUpdatedEvent> taskUpdatedKafkaTemplate() {
-        return new KafkaTemplate<>(taskUpdatedProducerFactory());
+    public KafkaTemplate<String, TaskUpdatedEvent> taskUpdatedKafkaTemplate(
+            ProducerFactory<String, TaskUpdatedEvent> taskUpdatedProducerFactory) {
+        KafkaTemplate<String, TaskUpdatedEvent> template = new KafkaTemplate<>(taskUpdatedProducerFactory);
+        template.setProducerInterceptor(new RelayedAtHeaderInterceptor());
+        return template;
     }
 }
@@ -0,0 +1,19 @@
+package com.balza.todoapp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Включает {@link io.micrometer.core.annotation.Timed} на бинах приложения.
+ * Гистограммы и границы таймеров задаются в management.metrics.distribution.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.balza.todoapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Настройки продюсера task.updated: активный профиль и набор профилей.
+ * Профиль задает компромисс между задержкой, пропускной способностью и надежностью
+ * и выбирается для окружения через task-events.producer.profile.
+ * maxBlockMs ограничивает ожидание метаданных и места в буфере продюсера внутри send(),
+ * чтобы недоступный брокер не останавливал релей outbox надолго.
+ */
+@ConfigurationProperties(prefix = "task-events.producer")
+public record TaskProducerProperties(String profile,
+                                     @DefaultValue("5000") long maxBlockMs,
+                                     Map<String, Profile> profiles) {
+
+    public Profile activeProfile() {
+        Profile active = profiles == null ? null : profiles.get(profile);
+        if (active == null) {
+            throw new IllegalStateException("Unknown task-events.producer.profile: " + profile
+                    + ", available: " + (profiles == null ? "[]" : profiles.keySet()));
+        }
+        return active;
+    }
+
+    /**
+     * События одного ключа должны приходить в порядке outbox. Без идемпотентности
+     * повтор упавшего запроса обгоняет уже отправленные следом, поэтому такой профиль
+     * допускает только один запрос в полете на соединение.
+     */
+    public record Profile(String acks,
+                          int lingerMs,
+                          int batchSize,
+                          String compressionType,
+                          boolean enableIdempotence,
+                          int maxInFlightRequestsPerConnection) {
+
+        public Profile {
+            if (!enableIdempotence && maxInFlightRequestsPerConnection > 1) {
+                throw new IllegalStateException("max-in-flight-requests-per-connection must be 1 "
+                        + "when enable-idempotence is false, otherwise retries reorder events");
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.balza.todoapp.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Профиль virtual-threads на Java ниже 21 Spring Boot молча игнорирует,
+ * поэтому предупреждаем об этом явно.
+ */
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @PostConstruct
+    void checkRuntime() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("Profile 'virtual-threads' is active but Java {} has no virtual threads, "
+                    + "platform threads will be used", javaVersion);
+        } else {
+            log.info("Serving requests on virtual threads (Java {})", javaVersion);
+        }
+    }
+}
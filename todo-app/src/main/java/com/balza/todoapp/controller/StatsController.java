@@ -1,6 +1,6 @@
 package com.balza.todoapp.controller;
 
-import com.balza.todoapp.client.StatsClient;
+import com.balza.todoapp.cache.RemoteStatsCache;
 import com.balza.todoapp.client.StatsView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,10 +10,10 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class StatsController {
 
-    private final StatsClient statsClient;
+    private final RemoteStatsCache remoteStatsCache;
 
     @GetMapping("/stats/remote")
     public StatsView getRemoteStats() {
-        return statsClient.getStats();
+        return remoteStatsCache.getStats();
     }
 }
@@ -1,13 +1,21 @@
 package com.balza.todoapp.controller;
 
+import com.balza.todoapp.dto.BulkCreateTaskRequestDto;
+import com.balza.todoapp.dto.BulkStatusUpdateRequestDto;
+import com.balza.todoapp.dto.BulkUpdateTaskRequestDto;
 import com.balza.todoapp.dto.CreateTaskRequestDto;
 import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.dto.TaskSliceResponseDto;
 import com.balza.todoapp.dto.UpdateTaskRequestDto;
+import com.balza.todoapp.model.ExportFormat;
 import com.balza.todoapp.model.Status;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 import static com.balza.todoapp.util.RestApiUrls.*;
 
@@ -28,12 +36,37 @@ public interface TaskApi {
             @RequestParam(defaultValue = "10") Integer size
     );
 
+    @GetMapping(SCROLL_TASK_PATH)
+    ResponseEntity<TaskSliceResponseDto> scrollTasks(
+            @RequestParam(required = false) Status status,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    );
+
+    @GetMapping(EXPORT_TASK_PATH)
+    ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) Status status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format
+    );
+
     @PutMapping(PUT_TASK_PATH)
     ResponseEntity<TaskResponseDto> updateTask(@Valid @RequestBody UpdateTaskRequestDto requestDto);
 
     @PatchMapping(PATCH_TASK_PATH)
     ResponseEntity<TaskResponseDto> updateTaskStatus(@PathVariable Long id, @RequestParam Status status);
 
+    @PostMapping(POST_BULK_TASKS_PATH)
+    ResponseEntity<List<TaskResponseDto>> createTasks(@Valid @RequestBody BulkCreateTaskRequestDto requestDto);
+
+    @PutMapping(PUT_BULK_TASKS_PATH)
+    ResponseEntity<List<TaskResponseDto>> updateTasks(@Valid @RequestBody BulkUpdateTaskRequestDto requestDto);
+
+    @PatchMapping(PATCH_BULK_TASKS_STATUS_PATH)
+    ResponseEntity<List<TaskResponseDto>> updateTasksStatus(@Valid @RequestBody BulkStatusUpdateRequestDto requestDto);
+
     @DeleteMapping(DELETE_TASK_PATH)
     ResponseEntity<Void> deleteTask(@PathVariable Long id);
 }
@@ -1,9 +1,16 @@
 package com.balza.todoapp.controller;
 
+import com.balza.todoapp.dto.BulkCreateTaskRequestDto;
+import com.balza.todoapp.dto.BulkStatusUpdateRequestDto;
+import com.balza.todoapp.dto.BulkUpdateTaskRequestDto;
 import com.balza.todoapp.dto.CreateTaskRequestDto;
 import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.dto.TaskSliceResponseDto;
 import com.balza.todoapp.dto.UpdateTaskRequestDto;
+import com.balza.todoapp.model.ExportFormat;
 import com.balza.todoapp.model.Status;
+import com.balza.todoapp.model.TaskSortField;
+import com.balza.todoapp.service.TaskExportService;
 import com.balza.todoapp.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -11,9 +18,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 import static com.balza.todoapp.util.RestApiUrls.TASK_API_BASE_PATH;
 
@@ -22,6 +33,7 @@ import static com.balza.todoapp.util.RestApiUrls.TASK_API_BASE_PATH;
 @RequiredArgsConstructor
 public class TaskController implements TaskApi {
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
 
 
     @Override
@@ -41,7 +53,7 @@ public class TaskController implements TaskApi {
     @Override
     public ResponseEntity<Page<TaskResponseDto>> getTasks(Status status, String sortBy, String sortOrder, Integer page, Integer size) {
         Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sort = Sort.by(direction, sortBy);
+        Sort sort = TaskSortField.fromProperty(sortBy).sort(direction);
         Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<TaskResponseDto> tasksPage = taskService.getTasks(status, pageable);
@@ -49,6 +61,25 @@ public class TaskController implements TaskApi {
         return response;
     }
 
+    @Override
+    public ResponseEntity<TaskSliceResponseDto> scrollTasks(Status status, String sortBy, String sortOrder, String cursor, Integer size, boolean withTotal) {
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, TaskSortField.fromProperty(sortBy).getProperty());
+
+        TaskSliceResponseDto slice = taskService.scrollTasks(status, sort, cursor, size, withTotal);
+        ResponseEntity<TaskSliceResponseDto> response = ResponseEntity.ok(slice);
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportTasks(Status status, ExportFormat format) {
+        StreamingResponseBody body = out -> taskExportService.exportTasks(status, format, out);
+        ResponseEntity<StreamingResponseBody> response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+        return response;
+    }
+
     @Override
     public ResponseEntity<TaskResponseDto> updateTask(UpdateTaskRequestDto requestDto) {
         TaskResponseDto updatedTask = taskService.updateTask(requestDto);
@@ -63,6 +94,27 @@ public class TaskController implements TaskApi {
         return response;
     }
 
+    @Override
+    public ResponseEntity<List<TaskResponseDto>> createTasks(BulkCreateTaskRequestDto requestDto) {
+        List<TaskResponseDto> createdTasks = taskService.createTasks(requestDto.tasks());
+        ResponseEntity<List<TaskResponseDto>> response = new ResponseEntity<>(createdTasks, HttpStatus.CREATED);
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<List<TaskResponseDto>> updateTasks(BulkUpdateTaskRequestDto requestDto) {
+        List<TaskResponseDto> updatedTasks = taskService.updateTasks(requestDto.tasks());
+        ResponseEntity<List<TaskResponseDto>> response = ResponseEntity.ok(updatedTasks);
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<List<TaskResponseDto>> updateTasksStatus(BulkStatusUpdateRequestDto requestDto) {
+        List<TaskResponseDto> updatedTasks = taskService.updateTasksStatus(requestDto.ids(), requestDto.status());
+        ResponseEntity<List<TaskResponseDto>> response = ResponseEntity.ok(updatedTasks);
+        return response;
+    }
+
     @Override
     public ResponseEntity<Void> deleteTask(Long id) {
         taskService.deleteById(id);
@@ -0,0 +1,14 @@
+package com.balza.todoapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkCreateTaskRequestDto(
+        @NotEmpty(message = "{task.bulk.notEmpty}")
+        @Size(max = 1000, message = "{task.bulk.size}")
+        List<@Valid CreateTaskRequestDto> tasks
+) {
+}
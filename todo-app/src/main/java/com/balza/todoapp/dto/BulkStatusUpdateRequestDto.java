@@ -0,0 +1,17 @@
+package com.balza.todoapp.dto;
+
+import com.balza.todoapp.model.Status;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkStatusUpdateRequestDto(
+        @NotEmpty(message = "{task.bulk.notEmpty}")
+        @Size(max = 1000, message = "{task.bulk.size}")
+        List<@NotNull(message = "{task.bulk.ids.notNull}") Long> ids,
+        @NotNull(message = "{task.status.notNull}")
+        Status status
+) {
+}
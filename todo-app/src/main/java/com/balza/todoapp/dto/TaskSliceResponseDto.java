@@ -0,0 +1,11 @@
+package com.balza.todoapp.dto;
+
+import java.util.List;
+
+public record TaskSliceResponseDto(
+        List<TaskResponseDto> content,
+        String nextCursor,
+        boolean hasNext,
+        Long totalElements
+) {
+}
@@ -0,0 +1,38 @@
+package com.balza.todoapp.events;
+
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Добавляет к событию заголовок с моментом отправки из outbox (epoch millis, 8 байт).
+ * Вместе с occurredAt он делит задержку доставки на время в outbox и путь через Kafka;
+ * timestamp записи для этого не подходит, если топик использует LogAppendTime.
+ */
+public class RelayedAtHeaderInterceptor implements ProducerInterceptor<String, TaskUpdatedEvent> {
+
+    public static final String RELAYED_AT_HEADER = "task-relayed-at";
+
+    @Override
+    public ProducerRecord<String, TaskUpdatedEvent> onSend(ProducerRecord<String, TaskUpdatedEvent> record) {
+        record.headers().remove(RELAYED_AT_HEADER);
+        record.headers().add(RELAYED_AT_HEADER,
+                ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis()).array());
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.balza.todoapp.events;
+
+import com.balza.todoapp.cache.TaskCacheEvictor;
+import com.balza.todoapp.config.KafkaConsumerConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Сбрасывает кэш задач по событиям из Kafka, чтобы изменения, сделанные
+ * другими экземплярами todo-app, не отдавались из локального кэша.
+ * У каждого экземпляра своя consumer group, имя которой не меняется
+ * между перезапусками (см. {@link KafkaConsumerConfig#taskCacheInvalidationGroupId}),
+ * чтобы на брокере не копились брошенные группы.
+ */
+@Component
+@ConditionalOnProperty(name = "task-cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCacheInvalidationListener {
+    private final TaskCacheEvictor taskCacheEvictor;
+
+    @KafkaListener(
+            topics = TaskEventPublisher.TOPIC_UPDATED,
+            groupId = "#{@taskCacheInvalidationGroupId}",
+            containerFactory = "taskCacheInvalidationKafkaListenerContainerFactory"
+    )
+    public void onTaskEvents(List<TaskUpdatedEvent> events) {
+        List<Long> ids = events.stream()
+                .filter(Objects::nonNull)
+                .map(TaskUpdatedEvent::getTaskId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        taskCacheEvictor.evictAll(ids);
+        log.debug("Evicted {} tasks from cache on remote events", ids.size());
+    }
+}
@@ -0,0 +1,11 @@
+package com.balza.todoapp.events;
+
+/**
+ * Формат value в топике task.updated.
+ * Консьюмеры читают оба варианта, поэтому переключение на BINARY
+ * делается после обновления всех читателей.
+ */
+public enum TaskEventFormat {
+    JSON,
+    BINARY
+}
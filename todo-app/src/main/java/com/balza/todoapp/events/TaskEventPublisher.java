@@ -1,19 +1,62 @@
 package com.balza.todoapp.events;
 
-import org.springframework.kafka.core.KafkaTemplate;
+import com.balza.todoapp.repository.TaskOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+/**
+ * Публикует события задач через transactional outbox: событие сохраняется
+ * в таблицу task_outbox в транзакции вызывающего кода и отправляется в Kafka
+ * фоновым {@link TaskOutboxRelay} только после коммита.
+ * Все события задач (создание, изменение, смена статуса, удаление) идут
+ * в один топик с ключом taskId, поэтому события одной задачи упорядочены:
+ * релей отправляет сообщение ключа только после доставки всех более ранних
+ * (см. {@link TaskOutboxRepository#lockNextBatch}).
+ * <p>
+ * Таймер task.events.publish меряет запись в outbox; задержка и ошибки отправки
+ * в Kafka видны в метриках {@link TaskOutboxRelay}.
+ */
 @Component
 public class TaskEventPublisher {
     public static final String TOPIC_UPDATED = "task.updated";
-    private final KafkaTemplate<String, TaskUpdatedEvent> template;
+    private final TaskOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
-    public TaskEventPublisher(KafkaTemplate<String, TaskUpdatedEvent> template) {
-        this.template = template;
+    public TaskEventPublisher(TaskOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Timed("task.events.publish")
     public void publishUpdated(TaskUpdatedEvent event) {
         String key = String.valueOf(event.getTaskId());
-        template.send(TOPIC_UPDATED, key, event);
+        outboxRepository.save(TOPIC_UPDATED, key, toJson(event));
+    }
+
+    /**
+     * Сохраняет пачку событий одним JDBC-батчем; релей отправит их вместе.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Timed("task.events.publish")
+    public void publishAllUpdated(List<TaskUpdatedEvent> events) {
+        List<TaskOutboxMessage> messages = events.stream()
+                .map(event -> new TaskOutboxMessage(null, TOPIC_UPDATED, String.valueOf(event.getTaskId()), toJson(event), 0))
+                .toList();
+        outboxRepository.saveAll(messages);
+    }
+
+    private String toJson(TaskUpdatedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event for task " + event.getTaskId(), e);
+        }
     }
 }
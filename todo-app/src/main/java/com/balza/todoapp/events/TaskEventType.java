@@ -0,0 +1,11 @@
+package com.balza.todoapp.events;
+
+/**
+ * Тип события задачи в топике task.updated.
+ */
+public enum TaskEventType {
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_STATUS_CHANGED,
+    TASK_DELETED
+}
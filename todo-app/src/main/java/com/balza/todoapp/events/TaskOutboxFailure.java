@@ -0,0 +1,11 @@
+package com.balza.todoapp.events;
+
+/**
+ * Неудачная попытка отправки сообщения outbox и задержка до следующей попытки.
+ */
+public record TaskOutboxFailure(
+        Long id,
+        long retryDelayMs,
+        String error
+) {
+}
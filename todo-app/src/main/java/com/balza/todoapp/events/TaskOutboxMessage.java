@@ -0,0 +1,10 @@
+package com.balza.todoapp.events;
+
+public record TaskOutboxMessage(
+        Long id,
+        String topic,
+        String key,
+        String payload,
+        int attempts
+) {
+}
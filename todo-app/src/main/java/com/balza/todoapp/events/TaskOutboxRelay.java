@@ -0,0 +1,224 @@
+package com.balza.todoapp.events;
+
+import com.balza.todoapp.repository.TaskOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновая отправка событий из task_outbox в Kafka.
+ * Сообщения читаются пачками, отправляются без ожидания каждого подтверждения,
+ * после единого flush() успешно доставленные строки удаляются одним запросом.
+ * <p>
+ * Запросы пользователей брокера не ждут: они только пишут в outbox, а он служит
+ * ограниченным по пачке буфером с переполнением на диск БД. Неотправленные сообщения
+ * не теряются, а откладываются с экспоненциальной задержкой и джиттером.
+ */
+@Component
+@Slf4j
+public class TaskOutboxRelay {
+
+    private final TaskOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, TaskUpdatedEvent> template;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer sendSuccessTimer;
+    private final Timer sendFailureTimer;
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final AtomicLong relayedTotal = new AtomicLong();
+    private long lastReportedTotal;
+    private long lastReportedAt = System.nanoTime();
+
+    public TaskOutboxRelay(TaskOutboxRepository outboxRepository,
+                           KafkaTemplate<String, TaskUpdatedEvent> template,
+                           ObjectMapper objectMapper,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${task-events.outbox.batch-size:500}") int batchSize,
+                           @Value("${task-events.outbox.send-timeout-ms:30000}") long sendTimeoutMs,
+                           @Value("${task-events.outbox.retry.initial-backoff-ms:500}") long initialBackoffMs,
+                           @Value("${task-events.outbox.retry.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.outboxRepository = outboxRepository;
+        this.template = template;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.sentCounter = Counter.builder("task.outbox.relay.sent")
+                .description("Outbox messages acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("task.outbox.relay.failed")
+                .description("Outbox send attempts that failed and were rescheduled")
+                .register(meterRegistry);
+        this.sendSuccessTimer = sendTimer(meterRegistry, "success");
+        this.sendFailureTimer = sendTimer(meterRegistry, "failure");
+        Gauge.builder("task.outbox.backlog", backlog, AtomicLong::get)
+                .description("Messages waiting in task_outbox at the last report")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отправляет пачки, пока есть готовые к отправке сообщения.
+     * Пачка может быть неполной и при непустом outbox (берется одно сообщение на ключ),
+     * поэтому цикл идет до пустой выборки, а не до неполной пачки. Он конечен:
+     * каждое выбранное сообщение либо удаляется, либо откладывается.
+     */
+    @Scheduled(fixedDelayString = "${task-events.outbox.poll-interval-ms:200}")
+    public void drain() {
+        RelayResult result;
+        do {
+            result = transactionTemplate.execute(status -> relayBatch());
+        } while (result != null && result.locked() > 0 && !Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * Отправляет одну пачку сообщений и возвращает число выбранных и доставленных.
+     * Недоставленные сообщения остаются в outbox и откладываются.
+     */
+    RelayResult relayBatch() {
+        List<TaskOutboxMessage> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return RelayResult.EMPTY;
+        }
+
+        List<CompletableFuture<SendResult<String, TaskUpdatedEvent>>> futures = new ArrayList<>(batch.size());
+        for (TaskOutboxMessage message : batch) {
+            futures.add(send(message));
+        }
+        template.flush();
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<TaskOutboxFailure> failures = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            TaskOutboxMessage message = batch.get(i);
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                sentIds.add(message.id());
+            } catch (InterruptedException e) {
+                // оставшиеся сообщения не трогаем: они будут отправлены при следующем запуске
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                long delayMs = retryDelayMs(message.attempts());
+                log.warn("Failed to relay outbox message {} for key {} (attempt {}), retrying in {} ms",
+                        message.id(), message.key(), message.attempts() + 1, delayMs, cause);
+                failures.add(new TaskOutboxFailure(message.id(), delayMs, String.valueOf(cause)));
+            }
+        }
+
+        outboxRepository.deleteAllById(sentIds);
+        outboxRepository.rescheduleAll(failures);
+        relayedTotal.addAndGet(sentIds.size());
+        sentCounter.increment(sentIds.size());
+        failedCounter.increment(failures.size());
+        log.debug("Relayed {} of {} outbox messages, {} rescheduled", sentIds.size(), batch.size(), failures.size());
+        return new RelayResult(batch.size(), sentIds.size());
+    }
+
+    @Scheduled(fixedRateString = "${task-events.outbox.report-interval-ms:60000}")
+    public void reportThroughput() {
+        long now = System.nanoTime();
+        long total = relayedTotal.get();
+        long relayed = total - lastReportedTotal;
+        if (relayed > 0) {
+            double seconds = (now - lastReportedAt) / 1_000_000_000.0;
+            log.info("Outbox relay sent {} events in {} s ({} events/sec)",
+                    relayed, String.format("%.1f", seconds), String.format("%.1f", relayed / seconds));
+        }
+        lastReportedTotal = total;
+        lastReportedAt = now;
+        backlog.set(outboxRepository.countPending());
+    }
+
+    public long getRelayedTotal() {
+        return relayedTotal.get();
+    }
+
+    /**
+     * Итог одной пачки: сколько сообщений выбрано из outbox и сколько из них доставлено.
+     */
+    record RelayResult(int locked, int sent) {
+        static final RelayResult EMPTY = new RelayResult(0, 0);
+    }
+
+    /**
+     * Экспоненциальная задержка с джиттером: случайное значение
+     * из второй половины интервала, чтобы экземпляры не повторяли попытки синхронно.
+     */
+    long retryDelayMs(int attempts) {
+        long ceiling = initialBackoffMs << Math.min(attempts, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffMs) {
+            ceiling = maxBackoffMs;
+        }
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    /**
+     * Ошибки, возникшие до отправки (битый payload, таймаут max.block.ms),
+     * возвращаются как неуспешный future и обрабатываются так же, как ошибки брокера.
+     * Время от вызова send до подтверждения брокера пишется в task.outbox.relay.send.
+     */
+    private CompletableFuture<SendResult<String, TaskUpdatedEvent>> send(TaskOutboxMessage message) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<SendResult<String, TaskUpdatedEvent>> future;
+        try {
+            future = template.send(message.topic(), message.key(), fromJson(message));
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) ->
+                (error == null ? sendSuccessTimer : sendFailureTimer)
+                        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("task.outbox.relay.send")
+                .description("Time from send to broker acknowledgement of an outbox message")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * id строки outbox становится идентификатором события: повторная отправка того же
+     * сообщения после сбоя несет тот же eventId, и потребитель отбросит дубликат.
+     */
+    private TaskUpdatedEvent fromJson(TaskOutboxMessage message) {
+        try {
+            TaskUpdatedEvent event = objectMapper.readValue(message.payload(), TaskUpdatedEvent.class);
+            event.setEventId(message.id());
+            return event;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted outbox message " + message.id(), e);
+        }
+    }
+}
@@ -1,20 +1,41 @@
 package com.balza.todoapp.events;
 
+import com.balza.todoapp.model.Status;
 import lombok.*;
 import java.time.Instant;
 import java.util.Map;
 
+/**
+ * Событие изменения задачи. Для создания, смены статуса и удаления
+ * передаются старый и новый статус, чтобы потребители могли вести
+ * счетчики по статусам без запросов к таблице tasks.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class TaskUpdatedEvent {
 
+    /**
+     * Идентификатор события, назначается при отправке из outbox (id строки task_outbox),
+     * потребители по нему отбрасывают дубликаты. Id берется из последовательности при
+     * вставке, а не при коммите, поэтому порядок событий по нему не определяется.
+     */
+    private Long eventId;
+
     @Builder.Default
-    private String eventType = "TASK_UPDATED";
+    private TaskEventType eventType = TaskEventType.TASK_UPDATED;
 
     private Long taskId;
     private Long totalTasks;
+    /**
+     * Версия строки счетчика, из которой взято totalTasks. Из двух событий
+     * более новое значение totalTasks у того, где версия больше.
+     */
+    private Long totalTasksVersion;
+
+    private Status oldStatus;
+    private Status newStatus;
 
     @Builder.Default
     private Instant occurredAt = Instant.now();
@@ -31,4 +52,48 @@ public class TaskUpdatedEvent {
                 .totalTasks(totalTasks)
                 .build();
     }
+
+    public static TaskUpdatedEvent created(Long taskId, Long totalTasks, Long totalTasksVersion, Status status) {
+        return TaskUpdatedEvent.builder()
+                .eventType(TaskEventType.TASK_CREATED)
+                .taskId(taskId)
+                .totalTasks(totalTasks)
+                .totalTasksVersion(totalTasksVersion)
+                .newStatus(status)
+                .build();
+    }
+
+    public static TaskUpdatedEvent updated(Long taskId, Long totalTasks, Long totalTasksVersion,
+                                           Status oldStatus, Status newStatus) {
+        return TaskUpdatedEvent.builder()
+                .eventType(TaskEventType.TASK_UPDATED)
+                .taskId(taskId)
+                .totalTasks(totalTasks)
+                .totalTasksVersion(totalTasksVersion)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .build();
+    }
+
+    public static TaskUpdatedEvent statusChanged(Long taskId, Long totalTasks, Long totalTasksVersion,
+                                                 Status oldStatus, Status newStatus) {
+        return TaskUpdatedEvent.builder()
+                .eventType(TaskEventType.TASK_STATUS_CHANGED)
+                .taskId(taskId)
+                .totalTasks(totalTasks)
+                .totalTasksVersion(totalTasksVersion)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .build();
+    }
+
+    public static TaskUpdatedEvent deleted(Long taskId, Long totalTasks, Long totalTasksVersion, Status oldStatus) {
+        return TaskUpdatedEvent.builder()
+                .eventType(TaskEventType.TASK_DELETED)
+                .taskId(taskId)
+                .totalTasks(totalTasks)
+                .totalTasksVersion(totalTasksVersion)
+                .oldStatus(oldStatus)
+                .build();
+    }
 }
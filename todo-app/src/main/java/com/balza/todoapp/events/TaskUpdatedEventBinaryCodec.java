@@ -0,0 +1,154 @@
+package com.balza.todoapp.events;
+
+import com.balza.todoapp.model.Status;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * Компактное бинарное представление {@link TaskUpdatedEvent} с фиксированной раскладкой:
+ * <pre>
+ * v1: magic(1) | 1 | flags(1) | taskId(8)? | totalTasks(8)? | occurredAt: seconds(8) nanos(4)?
+ * v2: magic(1) | 2 | flags(1) | eventType(1) | taskId(8)? | totalTasks(8)? | occurredAt(12)?
+ *     | oldStatus(1)? | newStatus(1)? | eventId(8)? | totalTasksVersion(8)?
+ * </pre>
+ * Поле пишется, только если выставлен соответствующий бит в flags.
+ * Новые поля добавляются только в конец: прежние читатели v2 их просто не читают.
+ * Пишется всегда v2, v1 читается как TASK_UPDATED без статусов.
+ * producer и version не передаются: они постоянны для топика.
+ * Первый байт не может начинать JSON-документ, по нему читатель отличает формат.
+ * Коды типов и статусов - индексы в EVENT_TYPES и STATUSES, их порядок менять нельзя.
+ */
+public final class TaskUpdatedEventBinaryCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte SCHEMA_VERSION = 2;
+    private static final byte SCHEMA_VERSION_V1 = 1;
+
+    private static final TaskEventType[] EVENT_TYPES = {
+            TaskEventType.TASK_CREATED,
+            TaskEventType.TASK_UPDATED,
+            TaskEventType.TASK_STATUS_CHANGED,
+            TaskEventType.TASK_DELETED
+    };
+    private static final Status[] STATUSES = {Status.TODO, Status.IN_PROGRESS, Status.DONE};
+
+    private static final int HEADER_SIZE = 3;
+    private static final byte HAS_TASK_ID = 1;
+    private static final byte HAS_TOTAL_TASKS = 1 << 1;
+    private static final byte HAS_OCCURRED_AT = 1 << 2;
+    private static final byte HAS_OLD_STATUS = 1 << 3;
+    private static final byte HAS_NEW_STATUS = 1 << 4;
+    private static final byte HAS_EVENT_ID = 1 << 5;
+    private static final byte HAS_TOTAL_TASKS_VERSION = 1 << 6;
+
+    private TaskUpdatedEventBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(TaskUpdatedEvent event) {
+        byte flags = 0;
+        int size = HEADER_SIZE + 1;
+        if (event.getTaskId() != null) {
+            flags |= HAS_TASK_ID;
+            size += Long.BYTES;
+        }
+        if (event.getTotalTasks() != null) {
+            flags |= HAS_TOTAL_TASKS;
+            size += Long.BYTES;
+        }
+        if (event.getOccurredAt() != null) {
+            flags |= HAS_OCCURRED_AT;
+            size += Long.BYTES + Integer.BYTES;
+        }
+        if (event.getOldStatus() != null) {
+            flags |= HAS_OLD_STATUS;
+            size++;
+        }
+        if (event.getNewStatus() != null) {
+            flags |= HAS_NEW_STATUS;
+            size++;
+        }
+        if (event.getEventId() != null) {
+            flags |= HAS_EVENT_ID;
+            size += Long.BYTES;
+        }
+        if (event.getTotalTasksVersion() != null) {
+            flags |= HAS_TOTAL_TASKS_VERSION;
+            size += Long.BYTES;
+        }
+
+        TaskEventType eventType = event.getEventType() != null ? event.getEventType() : TaskEventType.TASK_UPDATED;
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .put(MAGIC)
+                .put(SCHEMA_VERSION)
+                .put(flags)
+                .put(code(EVENT_TYPES, eventType));
+        if (event.getTaskId() != null) {
+            buffer.putLong(event.getTaskId());
+        }
+        if (event.getTotalTasks() != null) {
+            buffer.putLong(event.getTotalTasks());
+        }
+        if (event.getOccurredAt() != null) {
+            buffer.putLong(event.getOccurredAt().getEpochSecond());
+            buffer.putInt(event.getOccurredAt().getNano());
+        }
+        if (event.getOldStatus() != null) {
+            buffer.put(code(STATUSES, event.getOldStatus()));
+        }
+        if (event.getNewStatus() != null) {
+            buffer.put(code(STATUSES, event.getNewStatus()));
+        }
+        if (event.getEventId() != null) {
+            buffer.putLong(event.getEventId());
+        }
+        if (event.getTotalTasksVersion() != null) {
+            buffer.putLong(event.getTotalTasksVersion());
+        }
+        return buffer.array();
+    }
+
+    public static TaskUpdatedEvent decode(byte[] data) {
+        if (!isBinary(data) || data.length < HEADER_SIZE) {
+            throw new SerializationException("Not a binary TaskUpdatedEvent");
+        }
+        byte version = data[1];
+        if (version != SCHEMA_VERSION && version != SCHEMA_VERSION_V1) {
+            throw new SerializationException("Unsupported TaskUpdatedEvent schema version: " + version);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        byte flags = data[2];
+        try {
+            TaskUpdatedEvent event = new TaskUpdatedEvent();
+            event.setEventType(version == SCHEMA_VERSION_V1
+                    ? TaskEventType.TASK_UPDATED
+                    : EVENT_TYPES[buffer.get()]);
+            event.setTaskId((flags & HAS_TASK_ID) != 0 ? buffer.getLong() : null);
+            event.setTotalTasks((flags & HAS_TOTAL_TASKS) != 0 ? buffer.getLong() : null);
+            event.setOccurredAt((flags & HAS_OCCURRED_AT) != 0
+                    ? Instant.ofEpochSecond(buffer.getLong(), buffer.getInt())
+                    : null);
+            event.setOldStatus((flags & HAS_OLD_STATUS) != 0 ? STATUSES[buffer.get()] : null);
+            event.setNewStatus((flags & HAS_NEW_STATUS) != 0 ? STATUSES[buffer.get()] : null);
+            event.setEventId((flags & HAS_EVENT_ID) != 0 ? buffer.getLong() : null);
+            event.setTotalTasksVersion((flags & HAS_TOTAL_TASKS_VERSION) != 0 ? buffer.getLong() : null);
+            return event;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Truncated binary TaskUpdatedEvent", e);
+        }
+    }
+
+    private static <T> byte code(T[] values, T value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return (byte) i;
+            }
+        }
+        throw new SerializationException("No binary code for " + value);
+    }
+}
@@ -0,0 +1,38 @@
+package com.balza.todoapp.events;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Читает {@link TaskUpdatedEvent} в бинарном формате, а сообщения без
+ * бинарного заголовка отдает JSON-десериализатору (старые и переходные записи).
+ */
+public class TaskUpdatedEventDeserializer implements Deserializer<TaskUpdatedEvent> {
+
+    private final Deserializer<TaskUpdatedEvent> jsonDeserializer;
+
+    public TaskUpdatedEventDeserializer(Deserializer<TaskUpdatedEvent> jsonDeserializer) {
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public TaskUpdatedEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return TaskUpdatedEventBinaryCodec.isBinary(data)
+                ? TaskUpdatedEventBinaryCodec.decode(data)
+                : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
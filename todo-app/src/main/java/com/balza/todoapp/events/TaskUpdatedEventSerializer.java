@@ -0,0 +1,40 @@
+package com.balza.todoapp.events;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Пишет {@link TaskUpdatedEvent} в формате, выбранном свойством task-events.format.
+ * JSON делегируется переданному сериализатору, чтобы сохранить прежний вид сообщений.
+ */
+public class TaskUpdatedEventSerializer implements Serializer<TaskUpdatedEvent> {
+
+    private final TaskEventFormat format;
+    private final Serializer<TaskUpdatedEvent> jsonSerializer;
+
+    public TaskUpdatedEventSerializer(TaskEventFormat format, Serializer<TaskUpdatedEvent> jsonSerializer) {
+        this.format = format;
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, TaskUpdatedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        return format == TaskEventFormat.BINARY
+                ? TaskUpdatedEventBinaryCodec.encode(event)
+                : jsonSerializer.serialize(topic, event);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -0,0 +1,7 @@
+package com.balza.todoapp.exception;
+
+public class UnsupportedSortFieldException extends RuntimeException {
+    public UnsupportedSortFieldException(String message) {
+        super(message);
+    }
+}
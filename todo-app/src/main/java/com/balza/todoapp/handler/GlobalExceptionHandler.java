@@ -2,7 +2,9 @@ package com.balza.todoapp.handler;
 
 import com.balza.todoapp.dto.ErrorResponse;
 import com.balza.todoapp.dto.ValidationErrorResponse;
+import com.balza.todoapp.exception.InvalidCursorException;
 import com.balza.todoapp.exception.TaskNotFoundException;
+import com.balza.todoapp.exception.UnsupportedSortFieldException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -22,6 +24,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(value = {InvalidCursorException.class, UnsupportedSortFieldException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequestParameter(RuntimeException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -0,0 +1,44 @@
+package com.balza.todoapp.model;
+
+import com.balza.todoapp.exception.UnsupportedSortFieldException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+
+/**
+ * Поля, по которым разрешена сортировка списка задач. Для каждого есть
+ * составной индекс в 006-tasks-list-indexes.yaml, поэтому страница читается
+ * из индекса без сортировки всей таблицы.
+ */
+public enum TaskSortField {
+    ID("id"),
+    TITLE("title"),
+    STATUS("status"),
+    DUE_DATE("dueDate");
+
+    private final String property;
+
+    TaskSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static TaskSortField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new UnsupportedSortFieldException("Sorting is not supported for sortBy: " + property));
+    }
+
+    /**
+     * Сортировка с id в качестве второго ключа: порядок страниц устойчив
+     * и совпадает с порядком индекса (поле, id).
+     */
+    public Sort sort(Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.property));
+    }
+}
@@ -0,0 +1,63 @@
+package com.balza.todoapp.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Счетчики по таблице tasks, поддерживаемые в той же транзакции,
+ * что и изменения задач, чтобы не выполнять count(*) по всей таблице.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskCounterRepository {
+    public static final String TOTAL_TASKS = "total";
+
+    private static final RowMapper<Counter> COUNTER_MAPPER =
+            (rs, rowNum) -> new Counter(rs.getLong("value"), rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Изменяет счетчик и возвращает его новое значение.
+     * Версия растет на единицу при каждом изменении под блокировкой строки,
+     * поэтому порядок версий совпадает с порядком коммитов изменений счетчика.
+     */
+    public Counter increment(String name, long delta) {
+        try {
+            return jdbcTemplate.queryForObject(
+                    "UPDATE task_counters SET value = value + ?, version = version + 1 WHERE name = ? RETURNING value, version",
+                    COUNTER_MAPPER, delta, name);
+        } catch (EmptyResultDataAccessException e) {
+            throw missing(name, e);
+        }
+    }
+
+    /**
+     * Закоммиченное значение счетчика вместе с его версией.
+     */
+    public Counter get(String name) {
+        try {
+            return jdbcTemplate.queryForObject(
+                    "SELECT value, version FROM task_counters WHERE name = ?", COUNTER_MAPPER, name);
+        } catch (EmptyResultDataAccessException e) {
+            throw missing(name, e);
+        }
+    }
+
+    /**
+     * Строки счетчиков создаются миграциями, отсутствие строки - сломанная схема, а не ноль.
+     */
+    private static IllegalStateException missing(String name, EmptyResultDataAccessException e) {
+        return new IllegalStateException("Counter '" + name + "' is missing from task_counters", e);
+    }
+
+    /**
+     * Значение счетчика и версия, при которой оно было установлено.
+     * Из двух значений одного счетчика новее то, у которого версия больше.
+     */
+    public record Counter(long value, long version) {
+    }
+}
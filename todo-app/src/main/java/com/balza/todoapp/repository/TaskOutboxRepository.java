@@ -0,0 +1,98 @@
+package com.balza.todoapp.repository;
+
+import com.balza.todoapp.events.TaskOutboxFailure;
+import com.balza.todoapp.events.TaskOutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class TaskOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(String topic, String key, String payload) {
+        jdbcTemplate.update(
+                "INSERT INTO task_outbox(topic, event_key, payload) VALUES (?, ?, ?)",
+                topic, key, payload
+        );
+    }
+
+    public void saveAll(List<TaskOutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO task_outbox(topic, event_key, payload) VALUES (?, ?, ?)",
+                messages, messages.size(), (ps, message) -> {
+                    ps.setString(1, message.topic());
+                    ps.setString(2, message.key());
+                    ps.setString(3, message.payload());
+                }
+        );
+    }
+
+    /**
+     * Блокирует очередную порцию сообщений, время повторной отправки которых наступило,
+     * в порядке их записи. Строки, уже захваченные другим экземпляром релея, пропускаются.
+     * <p>
+     * Берется только самое раннее сообщение каждого ключа: следующее сообщение задачи
+     * не уходит в Kafka, пока предыдущее не доставлено и не удалено, даже если оно
+     * отложено после ошибки или отправляется другим экземпляром. Так события одной
+     * задачи не обгоняют друг друга, а в пачке нет двух сообщений одного ключа.
+     */
+    public List<TaskOutboxMessage> lockNextBatch(int limit) {
+        return jdbcTemplate.query(
+                "SELECT o.id, o.topic, o.event_key, o.payload, o.attempts FROM task_outbox o " +
+                        "WHERE o.next_attempt_at <= now() " +
+                        "AND NOT EXISTS (SELECT 1 FROM task_outbox p " +
+                        "WHERE p.event_key = o.event_key AND p.id < o.id) " +
+                        "ORDER BY o.id LIMIT ? FOR UPDATE OF o SKIP LOCKED",
+                (rs, rowNum) -> new TaskOutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("topic"),
+                        rs.getString("event_key"),
+                        rs.getString("payload"),
+                        rs.getInt("attempts")
+                ),
+                limit
+        );
+    }
+
+    /**
+     * Откладывает неотправленные сообщения: увеличивает счетчик попыток
+     * и сдвигает время следующей попытки. Сообщения из outbox не удаляются.
+     */
+    public void rescheduleAll(List<TaskOutboxFailure> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE task_outbox SET attempts = attempts + 1, " +
+                        "next_attempt_at = now() + ? * INTERVAL '1 millisecond', last_error = ? WHERE id = ?",
+                failures, failures.size(), (ps, failure) -> {
+                    ps.setLong(1, failure.retryDelayMs());
+                    ps.setString(2, failure.error());
+                    ps.setLong(3, failure.id());
+                }
+        );
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM task_outbox", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public int deleteAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM task_outbox WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()))
+        );
+    }
+}
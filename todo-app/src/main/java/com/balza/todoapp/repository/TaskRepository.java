@@ -2,10 +2,67 @@ package com.balza.todoapp.repository;
 
 import com.balza.todoapp.entity.Task;
 import com.balza.todoapp.model.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findByStatus(Status status, Pageable pageable);
+
+    Window<Task> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Task> findByStatus(Status status, ScrollPosition position, Sort sort, Limit limit);
+
+    long countByStatus(Status status);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t order by t.id")
+    Stream<Task> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t where t.status = :status order by t.id")
+    Stream<Task> streamByStatus(@Param("status") Status status);
+
+    @Modifying
+    @Query("delete from Task t where t.id = :id")
+    int deleteTaskById(@Param("id") Long id);
+
+    /**
+     * Загрузка с блокировкой строки: старый статус в событии должен совпадать
+     * с тем, что видели параллельные изменения той же задачи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id in :ids order by t.id")
+    List<Task> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.status from Task t where t.id = :id")
+    Optional<Status> findStatusByIdForUpdate(@Param("id") Long id);
 }
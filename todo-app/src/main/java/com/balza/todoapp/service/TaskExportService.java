@@ -0,0 +1,20 @@
+package com.balza.todoapp.service;
+
+import com.balza.todoapp.model.ExportFormat;
+import com.balza.todoapp.model.Status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TaskExportService {
+    /**
+     * Потоково выгружает задачи в выходной поток, не загружая их все в память.
+     * Задачи читаются курсором БД и записываются по одной в порядке id.
+     *
+     * @param status Статус для фильтрации (может быть null).
+     * @param format Формат выгрузки.
+     * @param out    Поток, в который пишутся данные; не закрывается методом.
+     * @throws IOException при ошибке записи в поток.
+     */
+    void exportTasks(Status status, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,112 @@
+package com.balza.todoapp.service;
+
+import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.entity.Task;
+import com.balza.todoapp.mapper.TaskMapper;
+import com.balza.todoapp.model.ExportFormat;
+import com.balza.todoapp.model.Status;
+import com.balza.todoapp.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskExportServiceImpl implements TaskExportService {
+    private static final String CSV_HEADER = "id,title,description,dueDate,status";
+    private static final int FLUSH_EVERY = 1000;
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(Status status, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting tasks with status: [{}] as {}", status, format);
+        long exported;
+        try (Stream<Task> tasks = status != null ? taskRepository.streamByStatus(status) : taskRepository.streamAll()) {
+            Iterator<Task> iterator = tasks.iterator();
+            exported = switch (format) {
+                case NDJSON -> writeNdjson(iterator, out);
+                case CSV -> writeCsv(iterator, out);
+            };
+        }
+        log.info("Exported {} tasks as {}", exported, format);
+    }
+
+    private long writeNdjson(Iterator<Task> tasks, OutputStream out) throws IOException {
+        long count = 0;
+        SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+        while (tasks.hasNext()) {
+            writer.write(next(tasks));
+            if (++count % FLUSH_EVERY == 1) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Task> tasks, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (tasks.hasNext()) {
+            TaskResponseDto task = next(tasks);
+            writer.write(String.valueOf(task.id()));
+            writer.write(',');
+            writer.write(csv(task.title()));
+            writer.write(',');
+            writer.write(csv(task.description()));
+            writer.write(',');
+            writer.write(task.dueDate() != null ? task.dueDate().toString() : "");
+            writer.write(',');
+            writer.write(task.status() != null ? task.status().name() : "");
+            writer.write('\n');
+            if (++count % FLUSH_EVERY == 1) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Отсоединяем сущность, чтобы контекст персистентности не рос вместе с выгрузкой
+    private TaskResponseDto next(Iterator<Task> tasks) {
+        Task task = tasks.next();
+        TaskResponseDto dto = taskMapper.toDto(task);
+        entityManager.detach(task);
+        return dto;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
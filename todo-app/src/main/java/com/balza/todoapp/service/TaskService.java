@@ -2,11 +2,17 @@ package com.balza.todoapp.service;
 
 import com.balza.todoapp.dto.CreateTaskRequestDto;
 import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.dto.TaskSliceResponseDto;
 import com.balza.todoapp.dto.UpdateTaskRequestDto;
+import com.balza.todoapp.exception.InvalidCursorException;
 import com.balza.todoapp.exception.TaskNotFoundException;
+import com.balza.todoapp.exception.UnsupportedSortFieldException;
 import com.balza.todoapp.model.Status;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
 
 public interface TaskService {
     /**
@@ -17,6 +23,14 @@ public interface TaskService {
      */
     TaskResponseDto createTask(CreateTaskRequestDto requestDto);
 
+    /**
+     * Создает пачку задач в одной транзакции с пакетной вставкой в БД.
+     *
+     * @param requestDtos DTO с данными для создания задач.
+     * @return DTO созданных задач в порядке запроса.
+     */
+    List<TaskResponseDto> createTasks(List<CreateTaskRequestDto> requestDtos);
+
     /**
      * Обновляет существующую задачу.
      *
@@ -26,6 +40,16 @@ public interface TaskService {
      */
     TaskResponseDto updateTask(UpdateTaskRequestDto requestDto);
 
+    /**
+     * Обновляет пачку существующих задач в одной транзакции.
+     * События об обновлении сохраняются в outbox одним батчем.
+     *
+     * @param requestDtos DTO с ID и обновленными данными задач.
+     * @return DTO обновленных задач в порядке запроса.
+     * @throws TaskNotFoundException если хотя бы одна задача не найдена; изменения не применяются.
+     */
+    List<TaskResponseDto> updateTasks(List<UpdateTaskRequestDto> requestDtos);
+
     /**
      * Обновляет статус существующей задачи.
      *
@@ -36,6 +60,16 @@ public interface TaskService {
      */
     TaskResponseDto updateTaskStatus(Long id, Status status);
 
+    /**
+     * Устанавливает один статус пачке задач в одной транзакции.
+     *
+     * @param ids    ID задач для обновления.
+     * @param status Новый статус для задач.
+     * @return DTO обновленных задач в порядке запроса.
+     * @throws TaskNotFoundException если хотя бы одна задача не найдена; изменения не применяются.
+     */
+    List<TaskResponseDto> updateTasksStatus(List<Long> ids, Status status);
+
     /**
      * Находит задачу по ее уникальному идентификатору.
      *
@@ -61,4 +95,20 @@ public interface TaskService {
      * @return Страница (Page) с DTO задач.
      */
     Page<TaskResponseDto> getTasks(Status status, Pageable pageable);
+
+    /**
+     * Возвращает очередную порцию задач с keyset-пагинацией по паре (поле сортировки, id).
+     * В отличие от {@link #getTasks(Status, Pageable)} не использует OFFSET и по умолчанию
+     * не считает общее количество задач.
+     *
+     * @param status    Статус для фильтрации (может быть null).
+     * @param sort      Сортировка первой порции; для последующих берется из курсора.
+     * @param cursor    Токен продолжения из предыдущего ответа (null для первой порции).
+     * @param size      Размер порции.
+     * @param withTotal Нужно ли посчитать общее количество задач.
+     * @return Порция задач и токен для получения следующей.
+     * @throws InvalidCursorException если курсор поврежден.
+     * @throws UnsupportedSortFieldException если поле не поддерживает keyset-пагинацию.
+     */
+    TaskSliceResponseDto scrollTasks(Status status, Sort sort, String cursor, int size, boolean withTotal);
 }
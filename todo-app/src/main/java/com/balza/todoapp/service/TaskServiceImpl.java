@@ -1,7 +1,10 @@
 package com.balza.todoapp.service;
 
+import com.balza.todoapp.cache.TaskCacheEvictor;
+import com.balza.todoapp.config.CacheConfig;
 import com.balza.todoapp.dto.CreateTaskRequestDto;
 import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.dto.TaskSliceResponseDto;
 import com.balza.todoapp.dto.UpdateTaskRequestDto;
 import com.balza.todoapp.entity.Task;
 import com.balza.todoapp.events.TaskEventPublisher;
@@ -9,23 +12,46 @@ import com.balza.todoapp.events.TaskUpdatedEvent;
 import com.balza.todoapp.exception.TaskNotFoundException;
 import com.balza.todoapp.mapper.TaskMapper;
 import com.balza.todoapp.model.Status;
+import com.balza.todoapp.repository.TaskCounterRepository;
 import com.balza.todoapp.repository.TaskRepository;
+import com.balza.todoapp.util.TaskCursorCodec;
+import com.balza.todoapp.util.TaskCursorCodec.TaskCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Каждый публичный метод измеряется таймером task.service с тегами class, method и exception.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "task.service", description = "TaskService method latency")
 public class TaskServiceImpl implements TaskService {
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final TaskEventPublisher taskEventPublisher;
+    private final TaskCounterRepository taskCounterRepository;
+    private final TaskCursorCodec taskCursorCodec;
+    private final TaskCacheEvictor taskCacheEvictor;
 
     @Override
     @Transactional
@@ -33,7 +59,12 @@ public class TaskServiceImpl implements TaskService {
         log.info("Attempting to create a new task with title: '{}'", requestDto.title());
         Task taskToSave = taskMapper.toEntity(requestDto);
         Task savedTask = taskRepository.save(taskToSave);
+        TaskCounterRepository.Counter totalTasks = taskCounterRepository.increment(TaskCounterRepository.TOTAL_TASKS, 1);
         log.info("Successfully created task with id: {}", savedTask.getId());
+        taskEventPublisher.publishUpdated(
+                TaskUpdatedEvent.created(savedTask.getId(), totalTasks.value(), totalTasks.version(),
+                        savedTask.getStatus())
+        );
         TaskResponseDto dto = taskMapper.toDto(savedTask);
         return dto;
     }
@@ -41,14 +72,35 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    public List<TaskResponseDto> createTasks(List<CreateTaskRequestDto> requestDtos) {
+        log.info("Attempting to create {} tasks in bulk", requestDtos.size());
+        List<Task> tasksToSave = requestDtos.stream()
+                .map(taskMapper::toEntity)
+                .toList();
+        List<Task> savedTasks = taskRepository.saveAll(tasksToSave);
+        TaskCounterRepository.Counter totalTasks = taskCounterRepository.increment(TaskCounterRepository.TOTAL_TASKS, savedTasks.size());
+        log.info("Successfully created {} tasks in bulk", savedTasks.size());
+        taskEventPublisher.publishAllUpdated(savedTasks.stream()
+                .map(task -> TaskUpdatedEvent.created(
+                        task.getId(), totalTasks.value(), totalTasks.version(), task.getStatus()))
+                .toList());
+        return savedTasks.stream()
+                .map(taskMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#requestDto.id()")
     public TaskResponseDto updateTask(UpdateTaskRequestDto requestDto) {
         final Long id = requestDto.id();
         log.info("Attempting to update task with id: {}", id);
-        Task existingTask = taskRepository.findById(id)
+        Task existingTask = taskRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> {
                     log.error("Update failed. Task not found with id: {}", id);
                     return new TaskNotFoundException("Task not found with id: " + id);
                 });
+        Status oldStatus = existingTask.getStatus();
 
         existingTask.setTitle(requestDto.title());
         existingTask.setDescription(requestDto.description());
@@ -57,10 +109,11 @@ public class TaskServiceImpl implements TaskService {
 
         Task savedTask = taskRepository.save(existingTask);
         log.info("Successfully updated task with id: {}", savedTask.getId());
-        long totalTasks = taskRepository.count();
+        TaskCounterRepository.Counter totalTasks = taskCounterRepository.get(TaskCounterRepository.TOTAL_TASKS);
 
         taskEventPublisher.publishUpdated(
-                TaskUpdatedEvent.of(savedTask.getId(), totalTasks)
+                TaskUpdatedEvent.updated(savedTask.getId(), totalTasks.value(), totalTasks.version(),
+                        oldStatus, savedTask.getStatus())
         );
 
         TaskResponseDto dto = taskMapper.toDto(savedTask);
@@ -69,22 +122,87 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    public List<TaskResponseDto> updateTasks(List<UpdateTaskRequestDto> requestDtos) {
+        log.info("Attempting to update {} tasks in bulk", requestDtos.size());
+        List<Long> ids = requestDtos.stream()
+                .map(UpdateTaskRequestDto::id)
+                .toList();
+        Map<Long, Task> existingTasks = findAllByIdOrThrow(ids);
+        Map<Long, Status> oldStatuses = existingTasks.values().stream()
+                .collect(Collectors.toMap(Task::getId, Task::getStatus));
+
+        for (UpdateTaskRequestDto requestDto : requestDtos) {
+            Task existingTask = existingTasks.get(requestDto.id());
+            existingTask.setTitle(requestDto.title());
+            existingTask.setDescription(requestDto.description());
+            existingTask.setDueDate(requestDto.dueDate());
+            existingTask.setStatus(requestDto.status());
+        }
+        List<Task> savedTasks = taskRepository.saveAll(existingTasks.values());
+        taskCacheEvictor.evictAll(existingTasks.keySet());
+        log.info("Successfully updated {} tasks in bulk", savedTasks.size());
+        TaskCounterRepository.Counter totalTasks = taskCounterRepository.get(TaskCounterRepository.TOTAL_TASKS);
+
+        taskEventPublisher.publishAllUpdated(savedTasks.stream()
+                .map(task -> TaskUpdatedEvent.updated(
+                        task.getId(), totalTasks.value(), totalTasks.version(),
+                        oldStatuses.get(task.getId()), task.getStatus()))
+                .toList());
+
+        return ids.stream()
+                .map(existingTasks::get)
+                .map(taskMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     public TaskResponseDto updateTaskStatus(Long id, Status status) {
         log.info("Attempting to update status to {} for task with id: {}", status, id);
-        Task existingTask = taskRepository.findById(id)
+        Task existingTask = taskRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> {
                     log.error("Update status failed. Task not found with id: {}", id);
                     return new TaskNotFoundException("Task not found with id: " + id);
                 });
+        Status oldStatus = existingTask.getStatus();
         existingTask.setStatus(status);
         Task savedTask = taskRepository.save(existingTask);
         log.info("Successfully updated status for task with id: {}", savedTask.getId());
+        TaskCounterRepository.Counter totalTasks = taskCounterRepository.get(TaskCounterRepository.TOTAL_TASKS);
+        taskEventPublisher.publishUpdated(
+                TaskUpdatedEvent.statusChanged(savedTask.getId(), totalTasks.value(), totalTasks.version(),
+                        oldStatus, status)
+        );
         TaskResponseDto dto = taskMapper.toDto(savedTask);
         return dto;
     }
 
+    @Override
+    @Transactional
+    public List<TaskResponseDto> updateTasksStatus(List<Long> ids, Status status) {
+        log.info("Attempting to update status to {} for {} tasks in bulk", status, ids.size());
+        Map<Long, Task> existingTasks = findAllByIdOrThrow(ids);
+        List<TaskUpdatedEvent> events = new ArrayList<>(existingTasks.size());
+        TaskCounterRepository.Counter totalTasks = taskCounterRepository.get(TaskCounterRepository.TOTAL_TASKS);
+        for (Task task : existingTasks.values()) {
+            events.add(TaskUpdatedEvent.statusChanged(
+                    task.getId(), totalTasks.value(), totalTasks.version(), task.getStatus(), status));
+            task.setStatus(status);
+        }
+        taskRepository.saveAll(existingTasks.values());
+        taskCacheEvictor.evictAll(existingTasks.keySet());
+        log.info("Successfully updated status for {} tasks in bulk", existingTasks.size());
+        taskEventPublisher.publishAllUpdated(events);
+        return ids.stream()
+                .map(existingTasks::get)
+                .map(taskMapper::toDto)
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     public TaskResponseDto getById(Long id) {
         log.info("Fetching task with id: {}", id);
         TaskResponseDto taskResponseDto = taskRepository.findById(id)
@@ -98,9 +216,16 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     public void deleteById(Long id) {
         log.info("Attempting to delete task with id: {}", id);
-        taskRepository.deleteById(id);
+        Optional<Status> oldStatus = taskRepository.findStatusByIdForUpdate(id);
+        if (oldStatus.isPresent()) {
+            int deleted = taskRepository.deleteTaskById(id);
+            TaskCounterRepository.Counter totalTasks = taskCounterRepository.increment(TaskCounterRepository.TOTAL_TASKS, -deleted);
+            taskEventPublisher.publishUpdated(
+                    TaskUpdatedEvent.deleted(id, totalTasks.value(), totalTasks.version(), oldStatus.get()));
+        }
         log.info("Delete operation called for task with id: {}", id);
     }
 
@@ -117,4 +242,53 @@ public class TaskServiceImpl implements TaskService {
         Page<TaskResponseDto> pageDto = taskPage.map(taskMapper::toDto);
         return pageDto;
     }
-}
\ No newline at end of file
+
+    private Map<Long, Task> findAllByIdOrThrow(List<Long> ids) {
+        Map<Long, Task> tasks = taskRepository.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !tasks.containsKey(id))
+                .distinct()
+                .toList();
+        if (!missingIds.isEmpty()) {
+            log.error("Bulk update failed. Tasks not found with ids: {}", missingIds);
+            throw new TaskNotFoundException("Tasks not found with ids: " + missingIds);
+        }
+        return tasks;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSliceResponseDto scrollTasks(Status status, Sort sort, String cursor, int size, boolean withTotal) {
+        log.info("Scrolling tasks with status: [{}], sort: [{}], cursor present: {}", status, sort, cursor != null);
+        ScrollPosition position;
+        if (cursor != null) {
+            TaskCursor decoded = taskCursorCodec.decode(cursor);
+            sort = Sort.by(decoded.direction(), decoded.sortBy());
+            position = ScrollPosition.forward(decoded.keys());
+        } else {
+            sort.forEach(order -> TaskCursorCodec.requireKeysetSortable(order.getProperty()));
+            position = ScrollPosition.keyset();
+        }
+
+        Window<Task> window;
+        if (status != null) {
+            window = taskRepository.findByStatus(status, position, sort, Limit.of(size));
+        } else {
+            window = taskRepository.findAllBy(position, sort, Limit.of(size));
+        }
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Sort.Order order = sort.iterator().next();
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = taskCursorCodec.encode(
+                    new TaskCursor(order.getProperty(), order.getDirection(), last.getKeys()));
+        }
+        Long total = null;
+        if (withTotal) {
+            total = status != null ? taskRepository.countByStatus(status) : taskRepository.count();
+        }
+        return new TaskSliceResponseDto(window.map(taskMapper::toDto).getContent(), nextCursor, window.hasNext(), total);
+    }
+}
@@ -5,8 +5,14 @@ public interface RestApiUrls {
     String TASKS_BASE_PATH = "/tasks";
     String GET_TASK_PATH = TASKS_BASE_PATH;
     String GET_TASK_BY_ID_PATH = GET_TASK_PATH + "/{id}";
+    String SCROLL_TASK_PATH = TASKS_BASE_PATH + "/scroll";
+    String EXPORT_TASK_PATH = TASKS_BASE_PATH + "/export";
     String POST_TASK_PATH = TASKS_BASE_PATH;
     String DELETE_TASK_PATH = TASKS_BASE_PATH + "/{id}";
     String PUT_TASK_PATH = TASKS_BASE_PATH;
     String PATCH_TASK_PATH = TASKS_BASE_PATH + "/{id}/status";
+    String BULK_TASKS_PATH = TASKS_BASE_PATH + "/bulk";
+    String POST_BULK_TASKS_PATH = BULK_TASKS_PATH;
+    String PUT_BULK_TASKS_PATH = BULK_TASKS_PATH;
+    String PATCH_BULK_TASKS_STATUS_PATH = BULK_TASKS_PATH + "/status";
 }
@@ -0,0 +1,84 @@
+package com.balza.todoapp.util;
+
+import com.balza.todoapp.exception.InvalidCursorException;
+import com.balza.todoapp.exception.UnsupportedSortFieldException;
+import com.balza.todoapp.model.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Кодирует позицию keyset-пагинации в непрозрачный токен и обратно.
+ * В токене хранятся поле и направление сортировки, поэтому клиенту
+ * достаточно передавать только курсор.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskCursorCodec {
+
+    /**
+     * Поля, по которым допустима keyset-пагинация: только NOT NULL колонки,
+     * иначе сравнение с NULL теряет строки.
+     */
+    public static final Set<String> KEYSET_SORT_FIELDS = Set.of("id", "title", "status");
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(TaskCursor cursor) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(cursor);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    public TaskCursor decode(String token) {
+        TaskCursor raw;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            raw = objectMapper.readValue(json, TaskCursor.class);
+        } catch (Exception e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+        if (raw.sortBy() == null || raw.direction() == null || raw.keys() == null) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        requireKeysetSortable(raw.sortBy());
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> key : raw.keys().entrySet()) {
+            keys.put(key.getKey(), toPropertyValue(key.getKey(), key.getValue()));
+        }
+        return new TaskCursor(raw.sortBy(), raw.direction(), keys);
+    }
+
+    public static void requireKeysetSortable(String sortBy) {
+        if (!KEYSET_SORT_FIELDS.contains(sortBy)) {
+            throw new UnsupportedSortFieldException(
+                    "Cursor pagination is not supported for sortBy: " + sortBy);
+        }
+    }
+
+    private static Object toPropertyValue(String property, Object value) {
+        try {
+            return switch (property) {
+                case "id" -> ((Number) value).longValue();
+                case "title" -> (String) value;
+                case "status" -> Status.valueOf((String) value);
+                default -> throw new InvalidCursorException("Unexpected cursor key: " + property);
+            };
+        } catch (ClassCastException | IllegalArgumentException | NullPointerException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+
+    public record TaskCursor(String sortBy, Sort.Direction direction, Map<String, Object> keys) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.balza.todoapp.cache;
+
+import com.balza.todoapp.client.StatsClient;
+import com.balza.todoapp.client.StatsView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для RemoteStatsCache")
+class RemoteStatsCacheTest {
+
+    @Mock
+    private StatsClient statsClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RemoteStatsCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Должен отдавать значение из кэша в пределах ttl")
+    void getStatsShouldServeFromCacheWithinTtl() {
+        cache = new RemoteStatsCache(statsClient, meterRegistry, 60_000, 0, 5_000);
+        StatsView view = statsView(10L);
+        when(statsClient.getStats()).thenReturn(view);
+
+        assertThat(cache.getStats()).isSameAs(view);
+        assertThat(cache.getStats()).isSameAs(view);
+
+        verify(statsClient, times(1)).getStats();
+        assertThat(meterRegistry.counter("stats.remote.cache.requests", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stats.remote.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Одновременные промахи должны разделять один запрос к stats-service")
+    void concurrentMissesShouldShareOneCall() throws Exception {
+        cache = new RemoteStatsCache(statsClient, meterRegistry, 60_000, 0, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        StatsView view = statsView(5L);
+        when(statsClient.getStats()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return view;
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<StatsView>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(cache::getStats));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<StatsView> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(view);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(statsClient, times(1)).getStats();
+    }
+
+    @Test
+    @DisplayName("Должен отдавать устаревшее значение и обновлять его в фоне")
+    void getStatsShouldServeStaleWhileRevalidating() throws Exception {
+        cache = new RemoteStatsCache(statsClient, meterRegistry, 0, 60_000, 5_000);
+        StatsView first = statsView(1L);
+        StatsView second = statsView(2L);
+        when(statsClient.getStats()).thenReturn(first, second);
+
+        assertThat(cache.getStats()).isSameAs(first);
+        assertThat(cache.getStats()).isSameAs(first);
+
+        verify(statsClient, timeout(1000).times(2)).getStats();
+        Thread.sleep(50);
+        assertThat(cache.getStats()).isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("Должен пробрасывать ошибку stats-service, если данных в кэше нет")
+    void getStatsShouldPropagateFailureOnMiss() {
+        cache = new RemoteStatsCache(statsClient, meterRegistry, 1000, 0, 5_000);
+        when(statsClient.getStats()).thenThrow(new IllegalStateException("stats-service is down"));
+
+        assertThatThrownBy(() -> cache.getStats())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("stats-service is down");
+    }
+
+    @Test
+    @DisplayName("Промах не должен ждать зависший запрос дольше miss-timeout")
+    void getStatsShouldStopWaitingAfterMissTimeout() {
+        cache = new RemoteStatsCache(statsClient, meterRegistry, 1000, 0, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        when(statsClient.getStats()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return statsView(1L);
+        });
+
+        try {
+            assertThatThrownBy(() -> cache.getStats())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("No response from stats-service");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Отказ в запуске обновления не должен оставлять зависший запрос")
+    void getStatsShouldNotHangWhenRefreshCannotStart() {
+        cache = new RemoteStatsCache(statsClient, meterRegistry, 1000, 0, 60_000);
+        cache.shutdown();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThatThrownBy(() -> cache.getStats()).isInstanceOf(RejectedExecutionException.class);
+            assertThatThrownBy(() -> cache.getStats()).isInstanceOf(RejectedExecutionException.class);
+        });
+        verifyNoInteractions(statsClient);
+    }
+
+    private static StatsView statsView(Long total) {
+        StatsView view = new StatsView();
+        view.setTotalTasks(total);
+        return view;
+    }
+}
@@ -1,10 +1,16 @@
 package com.balza.todoapp.controller;
 
+import com.balza.todoapp.dto.BulkCreateTaskRequestDto;
+import com.balza.todoapp.dto.BulkStatusUpdateRequestDto;
 import com.balza.todoapp.dto.CreateTaskRequestDto;
 import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.dto.TaskSliceResponseDto;
 import com.balza.todoapp.dto.UpdateTaskRequestDto;
+import com.balza.todoapp.exception.InvalidCursorException;
 import com.balza.todoapp.exception.TaskNotFoundException;
+import com.balza.todoapp.model.ExportFormat;
 import com.balza.todoapp.model.Status;
+import com.balza.todoapp.service.TaskExportService;
 import com.balza.todoapp.service.TaskService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -16,19 +22,30 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TaskController.class)
@@ -44,7 +61,10 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
-    private final OffsetDateTime testInstant = OffsetDateTime.parse("2025-09-10T10:00:00Z");
+    @MockBean
+    private TaskExportService taskExportService;
+
+    private final OffsetDateTime testInstant = OffsetDateTime.parse("2099-09-10T10:00:00Z");
 
     /**
      * Тест для POST /api/v1/tasks.
@@ -133,6 +153,96 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.content[0].title").value("Task 1"));
     }
 
+    /**
+     * Тест для GET /api/v1/tasks с сортировкой по сроку.
+     * Проверяет, что к полю сортировки добавляется id в качестве второго ключа.
+     */
+    @Test
+    @DisplayName("GET /api/v1/tasks - Должен сортировать по полю и id")
+    void getTasksShouldSortByFieldThenId() throws Exception {
+        Pageable expected = PageRequest.of(0, 10,
+                Sort.by(Sort.Direction.DESC, "dueDate").and(Sort.by(Sort.Direction.DESC, "id")));
+        when(taskService.getTasks(eq(Status.TODO), eq(expected))).thenReturn(Page.empty(expected));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("status", "TODO")
+                        .param("sortBy", "dueDate")
+                        .param("sortOrder", "desc"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Тест для GET /api/v1/tasks с полем сортировки вне белого списка.
+     * Проверяет, что возвращается статус 400 Bad Request.
+     */
+    @Test
+    @DisplayName("GET /api/v1/tasks - Должен вернуть 400 при сортировке по неиндексированному полю")
+    void getTasksWhenSortFieldNotAllowedShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks").param("sortBy", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Sorting is not supported for sortBy: description"));
+    }
+
+    /**
+     * Тест для GET /api/v1/tasks/scroll.
+     * Проверяет получение первой порции задач с токеном продолжения.
+     */
+    @Test
+    @DisplayName("GET /api/v1/tasks/scroll - Должен вернуть порцию задач и курсор")
+    void scrollTasksShouldReturnSliceWithCursor() throws Exception {
+        TaskSliceResponseDto slice = new TaskSliceResponseDto(
+                List.of(new TaskResponseDto(1L, "Task 1", "Description 1", testInstant, Status.TODO)),
+                "next-cursor", true, null);
+
+        when(taskService.scrollTasks(isNull(), eq(Sort.by(Sort.Direction.ASC, "id")), isNull(), eq(10), eq(false)))
+                .thenReturn(slice);
+
+        mockMvc.perform(get("/api/v1/tasks/scroll"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Task 1"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    /**
+     * Тест для GET /api/v1/tasks/scroll с поврежденным курсором.
+     * Проверяет, что возвращается статус 400 Bad Request.
+     */
+    @Test
+    @DisplayName("GET /api/v1/tasks/scroll - Должен вернуть 400 при поврежденном курсоре")
+    void scrollTasksWhenCursorInvalidShouldReturn400() throws Exception {
+        when(taskService.scrollTasks(any(), any(Sort.class), eq("broken"), anyInt(), anyBoolean()))
+                .thenThrow(new InvalidCursorException("Malformed cursor"));
+
+        mockMvc.perform(get("/api/v1/tasks/scroll").param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Тест для GET /api/v1/tasks/export.
+     * Проверяет, что выгрузка пишется напрямую в поток ответа с нужным Content-Type.
+     */
+    @Test
+    @DisplayName("GET /api/v1/tasks/export - Должен потоково выгрузить задачи в CSV")
+    void exportTasksShouldStreamCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,title\n1,Task 1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(taskExportService).exportTasks(eq(Status.DONE), eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export")
+                        .param("status", "DONE")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,title\n1,Task 1\n"));
+    }
+
     /**
      * Тест для PUT /api/v1/tasks.
      * Проверяет успешное обновление задачи.
@@ -172,6 +282,66 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.status").value(newStatus.toString()));
     }
 
+    /**
+     * Тест для POST /api/v1/tasks/bulk.
+     * Проверяет успешное создание пачки задач и возврат статуса 201 Created.
+     */
+    @Test
+    @DisplayName("POST /api/v1/tasks/bulk - Должен создать пачку задач и вернуть 201 Created")
+    void createTasksWhenValidRequestThenReturn201() throws Exception {
+        BulkCreateTaskRequestDto requestDto = new BulkCreateTaskRequestDto(List.of(
+                new CreateTaskRequestDto("Task 1", "d1", testInstant, Status.TODO),
+                new CreateTaskRequestDto("Task 2", "d2", testInstant, Status.TODO)));
+        List<TaskResponseDto> responseDto = List.of(
+                new TaskResponseDto(1L, "Task 1", "d1", testInstant, Status.TODO),
+                new TaskResponseDto(2L, "Task 2", "d2", testInstant, Status.TODO));
+
+        when(taskService.createTasks(anyList())).thenReturn(responseDto);
+
+        mockMvc.perform(post("/api/v1/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[1].id").value(2L));
+    }
+
+    /**
+     * Тест для POST /api/v1/tasks/bulk с невалидным элементом.
+     * Проверяет, что валидация применяется к каждому элементу списка.
+     */
+    @Test
+    @DisplayName("POST /api/v1/tasks/bulk - Должен вернуть 400 Bad Request, если элемент пачки невалиден")
+    void createTasksWhenItemInvalidThenReturn400() throws Exception {
+        BulkCreateTaskRequestDto requestDto = new BulkCreateTaskRequestDto(List.of(
+                new CreateTaskRequestDto("Task 1", "d1", testInstant, Status.TODO),
+                new CreateTaskRequestDto("", "d2", testInstant, Status.TODO)));
+
+        mockMvc.perform(post("/api/v1/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['tasks[1].title']").exists());
+    }
+
+    /**
+     * Тест для PATCH /api/v1/tasks/bulk/status.
+     * Проверяет успешное обновление статуса пачки задач.
+     */
+    @Test
+    @DisplayName("PATCH /api/v1/tasks/bulk/status - Должен обновить статус пачки задач и вернуть 200 OK")
+    void updateTasksStatusWhenValidRequestThenReturn200() throws Exception {
+        BulkStatusUpdateRequestDto requestDto = new BulkStatusUpdateRequestDto(List.of(1L), Status.DONE);
+        when(taskService.updateTasksStatus(List.of(1L), Status.DONE))
+                .thenReturn(List.of(new TaskResponseDto(1L, "Task", "Desc", testInstant, Status.DONE)));
+
+        mockMvc.perform(patch("/api/v1/tasks/bulk/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DONE"));
+    }
+
     /**
      * Тест для DELETE /api/v1/tasks/{id}.
      * Проверяет успешное удаление задачи и возврат статуса 204 No Content.
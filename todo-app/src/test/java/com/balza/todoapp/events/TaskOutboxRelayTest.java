@@ -0,0 +1,146 @@
+package com.balza.todoapp.events;
+
+import com.balza.todoapp.repository.TaskOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для TaskOutboxRelay")
+class TaskOutboxRelayTest {
+
+    @Mock
+    private TaskOutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, TaskUpdatedEvent> template;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new TaskOutboxRelay(outboxRepository, template, objectMapper, transactionTemplate,
+                meterRegistry, 500, 1000, 100, 1000);
+    }
+
+    @Test
+    @DisplayName("Должен удалять доставленные сообщения и откладывать недоставленные")
+    void relayBatchShouldDeleteSentAndRescheduleFailed() throws Exception {
+        TaskOutboxMessage sent = message(1L, 0);
+        TaskOutboxMessage failed = message(2L, 3);
+        when(outboxRepository.lockNextBatch(500)).thenReturn(List.of(sent, failed));
+        when(template.send(eq(TaskEventPublisher.TOPIC_UPDATED), eq("1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(template.send(eq(TaskEventPublisher.TOPIC_UPDATED), eq("2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        TaskOutboxRelay.RelayResult result = relay.relayBatch();
+
+        assertThat(result).isEqualTo(new TaskOutboxRelay.RelayResult(2, 1));
+        verify(outboxRepository).deleteAllById(List.of(1L));
+        List<TaskOutboxFailure> failures = captureFailures();
+        assertThat(failures).singleElement().satisfies(failure -> {
+            assertThat(failure.id()).isEqualTo(2L);
+            assertThat(failure.retryDelayMs()).isBetween(400L, 800L);
+            assertThat(failure.error()).contains("broker down");
+        });
+        assertThat(meterRegistry.counter("task.outbox.relay.sent").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("task.outbox.relay.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Должен передавать id строки outbox как eventId события")
+    void relayBatchShouldUseOutboxIdAsEventId() throws Exception {
+        when(outboxRepository.lockNextBatch(500)).thenReturn(List.of(message(7L, 0)));
+        when(template.send(eq(TaskEventPublisher.TOPIC_UPDATED), eq("7"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relayBatch();
+
+        ArgumentCaptor<TaskUpdatedEvent> captor = ArgumentCaptor.forClass(TaskUpdatedEvent.class);
+        verify(template).send(eq(TaskEventPublisher.TOPIC_UPDATED), eq("7"), captor.capture());
+        assertThat(captor.getValue().getEventId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Должен откладывать сообщение, если отправка упала до брокера")
+    void relayBatchShouldRescheduleCorruptedMessage() {
+        TaskOutboxMessage corrupted = new TaskOutboxMessage(5L, TaskEventPublisher.TOPIC_UPDATED, "5", "not json", 0);
+        when(outboxRepository.lockNextBatch(500)).thenReturn(List.of(corrupted));
+
+        TaskOutboxRelay.RelayResult result = relay.relayBatch();
+
+        assertThat(result).isEqualTo(new TaskOutboxRelay.RelayResult(1, 0));
+        verify(template, never()).send(any(), any(), any());
+        verify(outboxRepository).deleteAllById(List.of());
+        assertThat(captureFailures()).extracting(TaskOutboxFailure::id).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Недоставленная пачка не должна останавливать разбор outbox")
+    void drainShouldContinueAfterBatchWithFailures() throws Exception {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(outboxRepository.lockNextBatch(500))
+                .thenReturn(List.of(message(1L, 0)), List.of(message(2L, 0)), List.of());
+        when(template.send(eq(TaskEventPublisher.TOPIC_UPDATED), eq("1"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(template.send(eq(TaskEventPublisher.TOPIC_UPDATED), eq("2"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.drain();
+
+        verify(outboxRepository, times(3)).lockNextBatch(500);
+        verify(outboxRepository).deleteAllById(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Задержка повтора должна расти экспоненциально и ограничиваться максимумом")
+    void retryDelayShouldGrowAndBeCapped() {
+        assertThat(relay.retryDelayMs(0)).isBetween(50L, 100L);
+        assertThat(relay.retryDelayMs(2)).isBetween(200L, 400L);
+        assertThat(relay.retryDelayMs(10)).isBetween(500L, 1000L);
+        assertThat(relay.retryDelayMs(100)).isBetween(500L, 1000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TaskOutboxFailure> captureFailures() {
+        ArgumentCaptor<List<TaskOutboxFailure>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).rescheduleAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private TaskOutboxMessage message(Long id, int attempts) throws Exception {
+        String payload = objectMapper.writeValueAsString(TaskUpdatedEvent.of(id, 10L));
+        return new TaskOutboxMessage(id, TaskEventPublisher.TOPIC_UPDATED, String.valueOf(id), payload, attempts);
+    }
+}
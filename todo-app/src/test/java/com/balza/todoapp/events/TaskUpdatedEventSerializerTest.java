@@ -0,0 +1,109 @@
+package com.balza.todoapp.events;
+
+import com.balza.todoapp.model.Status;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Тесты для сериализации TaskUpdatedEvent")
+class TaskUpdatedEventSerializerTest {
+    private static final String TOPIC = TaskEventPublisher.TOPIC_UPDATED;
+
+    private final TaskUpdatedEvent event = TaskUpdatedEvent.builder()
+            .eventType(TaskEventType.TASK_STATUS_CHANGED)
+            .oldStatus(Status.TODO)
+            .newStatus(Status.DONE)
+            .taskId(42L)
+            .totalTasks(1000L)
+            .totalTasksVersion(1500L)
+            .eventId(123456789L)
+            .occurredAt(Instant.parse("2099-09-10T10:00:00.123456789Z"))
+            .build();
+
+    private final TaskUpdatedEventDeserializer deserializer =
+            new TaskUpdatedEventDeserializer(new JsonDeserializer<>(TaskUpdatedEvent.class, false));
+
+    @Test
+    @DisplayName("Бинарный формат должен восстанавливать все поля события")
+    void binaryRoundTripShouldPreserveFields() {
+        TaskUpdatedEventSerializer serializer =
+                new TaskUpdatedEventSerializer(TaskEventFormat.BINARY, new JsonSerializer<>());
+
+        byte[] data = serializer.serialize(TOPIC, event);
+        TaskUpdatedEvent result = deserializer.deserialize(TOPIC, data);
+
+        assertThat(data[0]).isEqualTo(TaskUpdatedEventBinaryCodec.MAGIC);
+        assertThat(result.getTaskId()).isEqualTo(42L);
+        assertThat(result.getTotalTasks()).isEqualTo(1000L);
+        assertThat(result.getOccurredAt()).isEqualTo(event.getOccurredAt());
+        assertThat(result.getEventType()).isEqualTo(TaskEventType.TASK_STATUS_CHANGED);
+        assertThat(result.getOldStatus()).isEqualTo(Status.TODO);
+        assertThat(result.getNewStatus()).isEqualTo(Status.DONE);
+        assertThat(result.getEventId()).isEqualTo(123456789L);
+        assertThat(result.getTotalTasksVersion()).isEqualTo(1500L);
+    }
+
+    @Test
+    @DisplayName("Должен читать события в бинарной схеме v1 как TASK_UPDATED")
+    void decodeShouldReadSchemaV1() {
+        byte[] data = ByteBuffer.allocate(11)
+                .put(TaskUpdatedEventBinaryCodec.MAGIC)
+                .put((byte) 1)
+                .put((byte) 1)
+                .putLong(42L)
+                .array();
+
+        TaskUpdatedEvent result = deserializer.deserialize(TOPIC, data);
+
+        assertThat(result.getTaskId()).isEqualTo(42L);
+        assertThat(result.getEventType()).isEqualTo(TaskEventType.TASK_UPDATED);
+        assertThat(result.getOldStatus()).isNull();
+        assertThat(result.getOccurredAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Бинарный формат должен сохранять отсутствующие поля как null")
+    void binaryRoundTripShouldKeepNullFields() {
+        TaskUpdatedEvent partial = TaskUpdatedEvent.builder().taskId(7L).occurredAt(null).build();
+
+        TaskUpdatedEvent result = TaskUpdatedEventBinaryCodec.decode(TaskUpdatedEventBinaryCodec.encode(partial));
+
+        assertThat(result.getTaskId()).isEqualTo(7L);
+        assertThat(result.getTotalTasks()).isNull();
+        assertThat(result.getOccurredAt()).isNull();
+        assertThat(result.getNewStatus()).isNull();
+        assertThat(result.getEventId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Десериализатор должен читать события в старом JSON-формате")
+    void deserializerShouldReadLegacyJson() {
+        TaskUpdatedEventSerializer serializer =
+                new TaskUpdatedEventSerializer(TaskEventFormat.JSON, new JsonSerializer<TaskUpdatedEvent>().noTypeInfo());
+
+        byte[] data = serializer.serialize(TOPIC, event);
+        TaskUpdatedEvent result = deserializer.deserialize(TOPIC, data);
+
+        assertThat(data[0]).isEqualTo((byte) '{');
+        assertThat(result).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Должен отклонять неизвестную версию бинарной схемы")
+    void decodeShouldRejectUnknownSchemaVersion() {
+        byte[] data = TaskUpdatedEventBinaryCodec.encode(event);
+        data[1] = 99;
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, data))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("99");
+    }
+}
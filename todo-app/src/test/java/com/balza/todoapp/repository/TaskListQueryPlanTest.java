@@ -0,0 +1,72 @@
+package com.balza.todoapp.repository;
+
+import com.balza.todoapp.model.Status;
+import com.balza.todoapp.model.TaskSortField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет планы запросов списка задач для каждого поля из {@link TaskSortField}.
+ * Выполняется на той же Postgres, что и приложение. Seq scan и bitmap scan отключаются
+ * внутри транзакции теста: на маленькой таблице планировщик иначе предпочтет их
+ * упорядоченному обходу индекса, который и нужен на большой.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Планы запросов списка задач")
+class TaskListQueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void disableUnorderedScans() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+    }
+
+    static Stream<Arguments> listQueries() {
+        return Arrays.stream(TaskSortField.values())
+                .flatMap(field -> Stream.of(Sort.Direction.ASC, Sort.Direction.DESC)
+                        .flatMap(direction -> Stream.of(
+                                Arguments.of(field, direction, null),
+                                Arguments.of(field, direction, Status.IN_PROGRESS))));
+    }
+
+    @ParameterizedTest(name = "{0} {1}, status = {2}")
+    @MethodSource("listQueries")
+    @DisplayName("Страница задач должна читаться по индексу без сортировки")
+    void listQueryShouldUseIndexWithoutSort(TaskSortField field, Sort.Direction direction, Status status) {
+        String orderBy = field.sort(direction).stream()
+                .map(order -> column(order.getProperty()) + " " + order.getDirection())
+                .collect(Collectors.joining(", "));
+        String where = status != null ? " WHERE status = '" + status.name() + "'" : "";
+
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM tasks" + where + " ORDER BY " + orderBy + " LIMIT 10", String.class);
+
+        assertThat(plan).as(String.join("\n", plan))
+                .anyMatch(line -> line.contains("Index Scan") || line.contains("Index Only Scan"))
+                .noneMatch(line -> line.contains("Seq Scan"))
+                .noneMatch(line -> line.trim().startsWith("->  Sort") || line.startsWith("Sort"));
+    }
+
+    private static String column(String property) {
+        return property.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
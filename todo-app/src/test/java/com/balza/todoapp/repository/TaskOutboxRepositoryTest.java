@@ -0,0 +1,75 @@
+package com.balza.todoapp.repository;
+
+import com.balza.todoapp.events.TaskEventPublisher;
+import com.balza.todoapp.events.TaskOutboxFailure;
+import com.balza.todoapp.events.TaskOutboxMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Выбор сообщений outbox для отправки. Выполняется на той же Postgres, что и приложение,
+ * в транзакции теста, которая откатывается; ключи уникальны для теста, чтобы не зависеть
+ * от других строк таблицы.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskOutboxRepository.class)
+@DisplayName("Тесты для TaskOutboxRepository")
+class TaskOutboxRepositoryTest {
+    private static final String KEY_A = "outbox-test-a";
+    private static final String KEY_B = "outbox-test-b";
+
+    @Autowired
+    private TaskOutboxRepository outboxRepository;
+
+    @Test
+    @DisplayName("Должен выбирать только самое раннее сообщение каждого ключа")
+    void lockNextBatchShouldTakeEarliestMessagePerKey() {
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_A, "{\"n\":1}");
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_B, "{\"n\":2}");
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_A, "{\"n\":3}");
+
+        List<TaskOutboxMessage> batch = lockTestMessages();
+
+        assertThat(batch).extracting(TaskOutboxMessage::payload).containsExactly("{\"n\":1}", "{\"n\":2}");
+    }
+
+    @Test
+    @DisplayName("Следующее сообщение ключа должно выбираться после удаления предыдущего")
+    void lockNextBatchShouldTakeNextMessageOnceEarlierIsDeleted() {
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_A, "{\"n\":1}");
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_A, "{\"n\":2}");
+        TaskOutboxMessage first = lockTestMessages().get(0);
+
+        outboxRepository.deleteAllById(List.of(first.id()));
+
+        assertThat(lockTestMessages()).extracting(TaskOutboxMessage::payload).containsExactly("{\"n\":2}");
+    }
+
+    @Test
+    @DisplayName("Отложенное после ошибки сообщение должно задерживать следующие сообщения ключа")
+    void lockNextBatchShouldHoldKeyBehindRescheduledMessage() {
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_A, "{\"type\":\"UPDATED\"}");
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_A, "{\"type\":\"DELETED\"}");
+        outboxRepository.save(TaskEventPublisher.TOPIC_UPDATED, KEY_B, "{\"type\":\"UPDATED\"}");
+        TaskOutboxMessage update = lockTestMessages().get(0);
+
+        outboxRepository.rescheduleAll(List.of(new TaskOutboxFailure(update.id(), 60_000, "broker down")));
+
+        assertThat(lockTestMessages()).extracting(TaskOutboxMessage::key).containsExactly(KEY_B);
+    }
+
+    private List<TaskOutboxMessage> lockTestMessages() {
+        return outboxRepository.lockNextBatch(1000).stream()
+                .filter(message -> message.key().startsWith("outbox-test-"))
+                .toList();
+    }
+}
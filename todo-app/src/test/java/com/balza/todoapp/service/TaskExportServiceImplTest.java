@@ -0,0 +1,89 @@
+package com.balza.todoapp.service;
+
+import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.entity.Task;
+import com.balza.todoapp.mapper.TaskMapper;
+import com.balza.todoapp.model.ExportFormat;
+import com.balza.todoapp.model.Status;
+import com.balza.todoapp.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для TaskExportServiceImpl")
+class TaskExportServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskExportServiceImpl exportService;
+
+    private final OffsetDateTime testInstant = OffsetDateTime.parse("2099-09-10T10:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new TaskExportServiceImpl(taskRepository, taskMapper, objectMapper, entityManager);
+    }
+
+    @Test
+    @DisplayName("Должен выгружать задачи в NDJSON по одной строке на задачу")
+    void exportTasksAsNdjsonShouldWriteOneLinePerTask() throws Exception {
+        Task first = new Task(1L, "Task 1", "d1", testInstant, Status.TODO);
+        Task second = new Task(2L, "Task 2", null, null, Status.TODO);
+        when(taskRepository.streamByStatus(Status.TODO)).thenReturn(Stream.of(first, second));
+        when(taskMapper.toDto(first)).thenReturn(new TaskResponseDto(1L, "Task 1", "d1", testInstant, Status.TODO));
+        when(taskMapper.toDto(second)).thenReturn(new TaskResponseDto(2L, "Task 2", null, null, Status.TODO));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTasks(Status.TODO, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1").contains("\"title\":\"Task 1\"");
+        assertThat(lines[1]).contains("\"id\":2");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Должен экранировать значения при выгрузке в CSV")
+    void exportTasksAsCsvShouldEscapeValues() throws Exception {
+        Task task = new Task(1L, "Title, with comma", "say \"hi\"", testInstant, Status.DONE);
+        when(taskRepository.streamAll()).thenReturn(Stream.of(task));
+        when(taskMapper.toDto(task))
+                .thenReturn(new TaskResponseDto(1L, "Title, with comma", "say \"hi\"", testInstant, Status.DONE));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTasks(null, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,title,description,dueDate,status\n" +
+                        "1,\"Title, with comma\",\"say \"\"hi\"\"\",2099-09-10T10:00Z,DONE\n");
+    }
+}
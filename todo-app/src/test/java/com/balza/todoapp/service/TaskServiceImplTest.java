@@ -1,30 +1,50 @@
 package com.balza.todoapp.service;
 
+import com.balza.todoapp.cache.TaskCacheEvictor;
 import com.balza.todoapp.dto.CreateTaskRequestDto;
 import com.balza.todoapp.dto.TaskResponseDto;
+import com.balza.todoapp.dto.TaskSliceResponseDto;
 import com.balza.todoapp.dto.UpdateTaskRequestDto;
 import com.balza.todoapp.entity.Task;
+import com.balza.todoapp.events.TaskEventPublisher;
+import com.balza.todoapp.events.TaskEventType;
+import com.balza.todoapp.events.TaskUpdatedEvent;
 import com.balza.todoapp.exception.TaskNotFoundException;
+import com.balza.todoapp.exception.UnsupportedSortFieldException;
 import com.balza.todoapp.mapper.TaskMapper;
 import com.balza.todoapp.model.Status;
+import com.balza.todoapp.repository.TaskCounterRepository;
 import com.balza.todoapp.repository.TaskRepository;
+import com.balza.todoapp.util.TaskCursorCodec;
+import com.balza.todoapp.util.TaskCursorCodec.TaskCursor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.time.OffsetDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +57,18 @@ class TaskServiceImplTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskEventPublisher taskEventPublisher;
+
+    @Mock
+    private TaskCounterRepository taskCounterRepository;
+
+    @Mock
+    private TaskCursorCodec taskCursorCodec;
+
+    @Mock
+    private TaskCacheEvictor taskCacheEvictor;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -82,10 +114,19 @@ class TaskServiceImplTest {
         when(taskRepository.save(taskToSave)).thenReturn(savedTask);
         when(taskMapper.toDto(savedTask)).thenReturn(expectedDto);
 
+        when(taskCounterRepository.increment(TaskCounterRepository.TOTAL_TASKS, 1)).thenReturn(new TaskCounterRepository.Counter(7L, 11L));
+
         TaskResponseDto actualDto = taskService.createTask(requestDto);
 
         assertThat(actualDto).isEqualTo(expectedDto);
         verify(taskRepository).save(taskToSave);
+        verify(taskEventPublisher).publishUpdated(argThat(event ->
+                event.getEventType() == TaskEventType.TASK_CREATED
+                        && event.getTaskId() == 1L
+                        && event.getTotalTasks() == 7L
+                        && event.getTotalTasksVersion() == 11L
+                        && event.getOldStatus() == null
+                        && event.getNewStatus() == Status.TODO));
     }
 
     @Test
@@ -97,13 +138,19 @@ class TaskServiceImplTest {
         Task savedTask = new Task(taskId, "Updated Title", "Updated Desc", testInstant, Status.DONE);
         TaskResponseDto expectedDto = new TaskResponseDto(taskId, "Updated Title", "Updated Desc", testInstant, Status.DONE);
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.findByIdForUpdate(taskId)).thenReturn(Optional.of(existingTask));
         when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
         when(taskMapper.toDto(savedTask)).thenReturn(expectedDto);
+        when(taskCounterRepository.get(TaskCounterRepository.TOTAL_TASKS)).thenReturn(new TaskCounterRepository.Counter(5L, 9L));
 
         TaskResponseDto actualDto = taskService.updateTask(requestDto);
 
         verify(taskRepository).save(existingTask);
+        verify(taskRepository, never()).count();
+        verify(taskEventPublisher).publishUpdated(argThat(event ->
+                event.getEventType() == TaskEventType.TASK_UPDATED
+                        && event.getOldStatus() == Status.TODO
+                        && event.getNewStatus() == Status.DONE));
         assertThat(actualDto.title()).isEqualTo("Updated Title");
         assertThat(actualDto.status()).isEqualTo(Status.DONE);
     }
@@ -113,20 +160,58 @@ class TaskServiceImplTest {
     void updateTaskWhenTaskNotFoundThenThrowsException() {
         long taskId = 99L;
         UpdateTaskRequestDto requestDto = new UpdateTaskRequestDto(taskId, "Title", "Desc", testInstant, Status.TODO);
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.findByIdForUpdate(taskId)).thenReturn(Optional.empty());
 
         assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(requestDto));
-        verify(taskRepository).findById(taskId);
+        verify(taskRepository).findByIdForUpdate(taskId);
         verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
-    @DisplayName("Должен вызывать метод deleteById")
+    @DisplayName("Должен обновлять статус и публиковать событие со старым и новым статусом")
+    void updateTaskStatusShouldPublishStatusChangedEvent() {
+        long taskId = 1L;
+        Task existingTask = new Task(taskId, "Task", "Desc", testInstant, Status.IN_PROGRESS);
+        when(taskRepository.findByIdForUpdate(taskId)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.save(existingTask)).thenReturn(existingTask);
+        when(taskCounterRepository.get(TaskCounterRepository.TOTAL_TASKS)).thenReturn(new TaskCounterRepository.Counter(4L, 8L));
+
+        taskService.updateTaskStatus(taskId, Status.DONE);
+
+        assertThat(existingTask.getStatus()).isEqualTo(Status.DONE);
+        verify(taskEventPublisher).publishUpdated(argThat(event ->
+                event.getEventType() == TaskEventType.TASK_STATUS_CHANGED
+                        && event.getTotalTasks() == 4L
+                        && event.getTotalTasksVersion() == 8L
+                        && event.getOldStatus() == Status.IN_PROGRESS
+                        && event.getNewStatus() == Status.DONE));
+    }
+
+    @Test
+    @DisplayName("Должен удалять задачу, уменьшать счетчик задач и публиковать событие удаления")
     void deleteByIdShouldCallDelete() {
         long taskId = 1L;
-        doNothing().when(taskRepository).deleteById(taskId);
+        when(taskRepository.findStatusByIdForUpdate(taskId)).thenReturn(Optional.of(Status.DONE));
+        when(taskRepository.deleteTaskById(taskId)).thenReturn(1);
+        when(taskCounterRepository.increment(TaskCounterRepository.TOTAL_TASKS, -1)).thenReturn(new TaskCounterRepository.Counter(2L, 6L));
+        taskService.deleteById(taskId);
+        verify(taskRepository).deleteTaskById(taskId);
+        verify(taskCounterRepository).increment(TaskCounterRepository.TOTAL_TASKS, -1);
+        verify(taskEventPublisher).publishUpdated(argThat(event ->
+                event.getEventType() == TaskEventType.TASK_DELETED
+                        && event.getTotalTasks() == 2L
+                        && event.getTotalTasksVersion() == 6L
+                        && event.getOldStatus() == Status.DONE));
+    }
+
+    @Test
+    @DisplayName("Не должен менять счетчик задач при удалении несуществующей задачи")
+    void deleteByIdWhenTaskNotFoundShouldNotChangeCounter() {
+        long taskId = 99L;
+        when(taskRepository.findStatusByIdForUpdate(taskId)).thenReturn(Optional.empty());
         taskService.deleteById(taskId);
-        verify(taskRepository).deleteById(taskId);
+        verify(taskRepository, never()).deleteTaskById(taskId);
+        verifyNoInteractions(taskCounterRepository, taskEventPublisher);
     }
 
     @Test
@@ -147,4 +232,112 @@ class TaskServiceImplTest {
         verify(taskRepository).findAll(pageable);
         verify(taskMapper).toDto(task);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Должен возвращать первую порцию задач с курсором и без подсчета общего количества")
+    void scrollTasksShouldReturnSliceWithCursor() {
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        Task task = new Task(1L, "Task 1", "d1", testInstant, Status.TODO);
+        TaskResponseDto expectedDto = new TaskResponseDto(1L, "Task 1", "d1", testInstant, Status.TODO);
+        Window<Task> window = Window.from(List.of(task), index -> ScrollPosition.forward(Map.of("id", 1L)), true);
+
+        when(taskRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(1))).thenReturn(window);
+        when(taskMapper.toDto(task)).thenReturn(expectedDto);
+        when(taskCursorCodec.encode(new TaskCursor("id", Sort.Direction.ASC, Map.of("id", 1L)))).thenReturn("next");
+
+        TaskSliceResponseDto slice = taskService.scrollTasks(null, sort, null, 1, false);
+
+        assertThat(slice.content()).containsExactly(expectedDto);
+        assertThat(slice.nextCursor()).isEqualTo("next");
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.totalElements()).isNull();
+        verify(taskRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Должен продолжать выборку с позиции из курсора")
+    void scrollTasksWithCursorShouldContinueFromPosition() {
+        Map<String, Object> keys = Map.of("title", "Task 1", "id", 1L);
+        Sort sort = Sort.by(Sort.Direction.DESC, "title");
+        when(taskCursorCodec.decode("cursor")).thenReturn(new TaskCursor("title", Sort.Direction.DESC, keys));
+        when(taskRepository.findByStatus(eq(Status.DONE), eq(ScrollPosition.forward(keys)), eq(sort), eq(Limit.of(10))))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset(), false));
+        when(taskRepository.countByStatus(Status.DONE)).thenReturn(0L);
+
+        TaskSliceResponseDto slice = taskService.scrollTasks(Status.DONE, Sort.by("id"), "cursor", 10, true);
+
+        assertThat(slice.content()).isEmpty();
+        assertThat(slice.nextCursor()).isNull();
+        assertThat(slice.totalElements()).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен отклонять keyset-пагинацию по полю, допускающему NULL")
+    void scrollTasksBySupportedFieldOnly() {
+        Sort sort = Sort.by("dueDate");
+
+        assertThrows(UnsupportedSortFieldException.class, () -> taskService.scrollTasks(null, sort, null, 10, false));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Должен создавать пачку задач одним saveAll и увеличивать счетчик на их количество")
+    void createTasksShouldSaveAllAndIncrementCounter() {
+        CreateTaskRequestDto first = new CreateTaskRequestDto("Task 1", "d1", testInstant, Status.TODO);
+        CreateTaskRequestDto second = new CreateTaskRequestDto("Task 2", "d2", testInstant, Status.TODO);
+        Task firstEntity = new Task(null, "Task 1", "d1", testInstant, Status.TODO);
+        Task secondEntity = new Task(null, "Task 2", "d2", testInstant, Status.TODO);
+        Task firstSaved = new Task(1L, "Task 1", "d1", testInstant, Status.TODO);
+        Task secondSaved = new Task(2L, "Task 2", "d2", testInstant, Status.TODO);
+        TaskResponseDto firstDto = new TaskResponseDto(1L, "Task 1", "d1", testInstant, Status.TODO);
+        TaskResponseDto secondDto = new TaskResponseDto(2L, "Task 2", "d2", testInstant, Status.TODO);
+
+        when(taskMapper.toEntity(first)).thenReturn(firstEntity);
+        when(taskMapper.toEntity(second)).thenReturn(secondEntity);
+        when(taskRepository.saveAll(List.of(firstEntity, secondEntity))).thenReturn(List.of(firstSaved, secondSaved));
+        when(taskMapper.toDto(firstSaved)).thenReturn(firstDto);
+        when(taskMapper.toDto(secondSaved)).thenReturn(secondDto);
+        when(taskCounterRepository.increment(TaskCounterRepository.TOTAL_TASKS, 2))
+                .thenReturn(new TaskCounterRepository.Counter(2L, 1L));
+
+        List<TaskResponseDto> actual = taskService.createTasks(List.of(first, second));
+
+        assertThat(actual).containsExactly(firstDto, secondDto);
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskCounterRepository).increment(TaskCounterRepository.TOTAL_TASKS, 2);
+    }
+
+    @Test
+    @DisplayName("Должен обновлять пачку задач и публиковать события одним вызовом")
+    void updateTasksShouldUpdateAllAndPublishEventsInOneCall() {
+        UpdateTaskRequestDto requestDto = new UpdateTaskRequestDto(1L, "Updated", "Desc", testInstant, Status.DONE);
+        Task existingTask = new Task(1L, "Old", "Old Desc", testInstant, Status.TODO);
+        TaskResponseDto expectedDto = new TaskResponseDto(1L, "Updated", "Desc", testInstant, Status.DONE);
+
+        when(taskRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(existingTask));
+        when(taskRepository.saveAll(anyCollection())).thenReturn(List.of(existingTask));
+        when(taskCounterRepository.get(TaskCounterRepository.TOTAL_TASKS)).thenReturn(new TaskCounterRepository.Counter(3L, 5L));
+        when(taskMapper.toDto(existingTask)).thenReturn(expectedDto);
+
+        List<TaskResponseDto> actual = taskService.updateTasks(List.of(requestDto));
+
+        assertThat(actual).containsExactly(expectedDto);
+        assertThat(existingTask.getTitle()).isEqualTo("Updated");
+        assertThat(existingTask.getStatus()).isEqualTo(Status.DONE);
+        verify(taskEventPublisher).publishAllUpdated(anyList());
+        verify(taskEventPublisher, never()).publishUpdated(any(TaskUpdatedEvent.class));
+        verify(taskCacheEvictor).evictAll(Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("Должен выбрасывать TaskNotFoundException, если хотя бы одна задача из пачки не найдена")
+    void updateTasksStatusWhenSomeTasksNotFoundThenThrowsException() {
+        Task existingTask = new Task(1L, "Task", "Desc", testInstant, Status.TODO);
+        when(taskRepository.findAllByIdForUpdate(List.of(1L, 99L))).thenReturn(List.of(existingTask));
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTasksStatus(List.of(1L, 99L), Status.DONE));
+        verify(taskRepository, never()).saveAll(anyCollection());
+        verifyNoInteractions(taskCacheEvictor);
+        assertThat(existingTask.getStatus()).isEqualTo(Status.TODO);
+    }
+}